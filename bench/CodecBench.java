@@ -0,0 +1,83 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Taille et temps d'encodage / décodage de {@code GET /api/session} en JSON et en CBOR,
+ * avec les mêmes réglages Jackson que l'application.
+ *
+ * <pre>
+ * mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp "target/classes:$(cat target/cp.txt)" bench/CodecBench.java [sessions] [participants]
+ * </pre>
+ */
+public class CodecBench {
+
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int participants = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<SessionDto> catalog = catalog(sessions, participants);
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+
+        System.out.printf("sessions=%d participants=%d iterations=%d%n", sessions, participants, ITERATIONS);
+        measure("json", json, catalog);
+        measure("cbor", cbor, catalog);
+    }
+
+    private static void measure(String name, ObjectMapper mapper, List<SessionDto> catalog) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(catalog);
+
+        // Échauffement JIT, non mesuré
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(catalog), SessionDto[].class);
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(catalog);
+        }
+        long encodeNanos = (System.nanoTime() - t0) / ITERATIONS;
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(encoded, SessionDto[].class);
+        }
+        long decodeNanos = (System.nanoTime() - t0) / ITERATIONS;
+
+        System.out.printf("%-5s bytes=%d gzip=%d encode=%.2f ms decode=%.2f ms%n",
+                name, encoded.length, gzip(encoded).length, encodeNanos / 1e6, decodeNanos / 1e6);
+    }
+
+    private static List<SessionDto> catalog(int sessions, int participants) {
+        List<SessionDto> catalog = new ArrayList<>(sessions);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= sessions; i++) {
+            long id = i;
+            List<Long> users = LongStream.rangeClosed(1, participants).map(u -> u * 7 + id).boxed().toList();
+            catalog.add(new SessionDto(id, "Session " + id, new Date(), id % 10 + 1,
+                    "Hatha yoga for all levels, bring your own mat. Room " + id % 5, users, now, now, 20, List.of(), 60));
+        }
+        return catalog;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,137 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Charge reproductible sur /api/session (complet et {@code ?fields=}), /api/v2/session et /api/auth/login
+ * (JDK 21, aucune dépendance).
+ *
+ * <pre>
+ * java bench/LoadTest.java [baseUrl] [concurrence] [requêtes par endpoint]
+ * java bench/LoadTest.java http://localhost:8080 200 20000 | tee bench_output.txt
+ * </pre>
+ * Lancer une fois avec VIRTUAL_THREADS=false puis avec VIRTUAL_THREADS=true, même jeu de données.
+ */
+public class LoadTest {
+
+    private static final String LOGIN_BODY = "{\"email\":\"yoga@studio.com\",\"password\":\"test!1234\"}";
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build();
+
+        String token = token(CLIENT.send(login, HttpResponse.BodyHandlers.ofString()).body());
+        HttpRequest sessions = HttpRequest.newBuilder(URI.create(baseUrl + "/api/session"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpRequest sessionsSparse = HttpRequest.newBuilder(URI.create(baseUrl + "/api/session?fields=name,date"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpRequest sessionsV2 = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v2/session"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/x-ndjson")
+                .GET()
+                .build();
+
+        // Échauffement JIT / pools, non mesuré
+        run(sessions, concurrency, Math.min(requests, 1_000));
+        run(sessionsSparse, concurrency, Math.min(requests, 1_000));
+        run(sessionsV2, concurrency, Math.min(requests, 1_000));
+        run(login, concurrency, Math.min(requests, 200));
+
+        System.out.printf("concurrency=%d requests=%d%n", concurrency, requests);
+        System.out.printf("payload GET /api/session=%d bytes, ?fields=name,date=%d bytes%n",
+                bytes(sessions), bytes(sessionsSparse));
+        report("GET /api/session", run(sessions, concurrency, requests));
+        report("GET ?fields=name,date", run(sessionsSparse, concurrency, requests));
+        report("GET /api/v2/session", run(sessionsV2, concurrency, requests));
+        report("POST /api/auth/login", run(login, concurrency, requests));
+    }
+
+    private static Result run(HttpRequest request, int concurrency, int requests) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        List<Future<?>> workers = new ArrayList<>();
+        int[] errors = new int[1];
+        int perWorker = requests / concurrency;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < perWorker; i++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            int status = CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                synchronized (errors) {
+                                    errors[0]++;
+                                }
+                            }
+                        } catch (Exception e) {
+                            synchronized (errors) {
+                                errors[0]++;
+                            }
+                        }
+                        latencies.add(System.nanoTime() - t0);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return new Result(new ArrayList<>(latencies), errors[0], System.nanoTime() - start);
+    }
+
+    private static int bytes(HttpRequest request) throws Exception {
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    private static void report(String name, Result result) {
+        List<Long> sorted = result.latencies();
+        Collections.sort(sorted);
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf("%-22s n=%d errors=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                name, sorted.size(), result.errors(), sorted.size() / seconds,
+                percentile(sorted, 50), percentile(sorted, 99), sorted.get(sorted.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private static String token(String body) {
+        Matcher matcher = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"").matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private record Result(List<Long> latencies, int errors, long elapsedNanos) {
+    }
+}
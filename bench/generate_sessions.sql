@@ -0,0 +1,20 @@
+-- Jeu de données pour l'export : 1 000 000 de sessions, un participant sur trois.
+-- mysql -u $DB_USER -p $DB_NAME < bench/generate_sessions.sql
+SET SESSION cte_max_recursion_depth = 1000000;
+
+INSERT INTO sessions (name, date, description, teacher_id)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 1000000
+)
+SELECT CONCAT('Bench session ', n),
+       TIMESTAMPADD(MINUTE, n, '2025-01-01 00:00:00'),
+       'Generated for the export benchmark',
+       (SELECT MIN(id) FROM teachers)
+FROM seq;
+
+INSERT INTO participate (session_id, user_id)
+SELECT s.id, (SELECT MIN(id) FROM users)
+FROM sessions s
+WHERE s.name LIKE 'Bench session %' AND MOD(s.id, 3) = 0;
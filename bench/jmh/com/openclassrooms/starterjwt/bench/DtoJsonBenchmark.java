@@ -0,0 +1,116 @@
+package com.openclassrooms.starterjwt.bench;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.openclassrooms.starterjwt.configuration.MediaTypesConfig;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.payload.response.JwtResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Écriture d'une réponse par le convertisseur Jackson de Spring Boot et par le convertisseur
+ * des adaptateurs générés, vers un flux qui jette les octets (comme le flux de la réponse).
+ * L'allocation par réponse se lit dans {@code gc.alloc.rate.norm} avec {@code -prof gc}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="-prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoJsonBenchmark {
+
+    private static final Type SESSION_LIST = new ParameterizedTypeReference<List<SessionDto>>() { }.getType();
+
+    @Param({"1", "100"})
+    public int sessions;
+
+    private GenericHttpMessageConverter<Object> jackson;
+    private GenericHttpMessageConverter<Object> generated;
+    private List<SessionDto> catalog;
+    private JwtResponse jwt;
+
+    @Setup
+    public void setUp() {
+        this.jackson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        MediaTypesConfig config = new MediaTypesConfig();
+        this.generated = config.generatedJsonHttpMessageConverter(config.jsonb());
+
+        LocalDateTime now = LocalDateTime.now();
+        this.catalog = new ArrayList<>(this.sessions);
+        for (long id = 1; id <= this.sessions; id++) {
+            long sessionId = id;
+            List<Long> users = LongStream.rangeClosed(1, 20).map(u -> u * 7 + sessionId).boxed().toList();
+            this.catalog.add(new SessionDto(id, "Session " + id, new Date(), id % 10 + 1,
+                    "Hatha yoga for all levels, bring your own mat. Room " + id % 5, users, now, now, 20, List.of(), 60));
+        }
+        this.jwt = new JwtResponse("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJ5b2dhQHN0dWRpby5jb20ifQ.signature",
+                1L, "yoga@studio.com", "Admin", "Admin", true);
+    }
+
+    @Benchmark
+    public void jacksonSessions() throws Exception {
+        this.jackson.write(this.catalog, SESSION_LIST, MediaType.APPLICATION_JSON, new DiscardingResponse());
+    }
+
+    @Benchmark
+    public void generatedSessions() throws Exception {
+        this.generated.write(this.catalog, SESSION_LIST, MediaType.APPLICATION_JSON, new DiscardingResponse());
+    }
+
+    @Benchmark
+    public void jacksonJwt() throws Exception {
+        this.jackson.write(this.jwt, JwtResponse.class, MediaType.APPLICATION_JSON, new DiscardingResponse());
+    }
+
+    @Benchmark
+    public void generatedJwt() throws Exception {
+        this.generated.write(this.jwt, JwtResponse.class, MediaType.APPLICATION_JSON, new DiscardingResponse());
+    }
+
+    private static final class DiscardingResponse implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+    }
+}
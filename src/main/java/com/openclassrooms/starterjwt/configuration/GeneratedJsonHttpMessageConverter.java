@@ -0,0 +1,115 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Écrit en JSON les DTO annotés {@code @Json} avec les adaptateurs générés à la compilation
+ * (avaje-jsonb), directement dans le flux de la réponse : ni réflexion ni introspection
+ * de bean par requête. Placé avant Jackson, il ne prend que ces types et leurs listes ;
+ * la lecture des corps de requête et les autres réponses restent à Jackson.
+ */
+public class GeneratedJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    // Résolus une fois : aucune recherche d'adaptateur par réponse.
+    private final Map<Class<?>, JsonType<Object>> single;
+    private final Map<Class<?>, JsonType<List<Object>>> lists;
+
+    @SuppressWarnings("unchecked")
+    public GeneratedJsonHttpMessageConverter(Jsonb jsonb, Set<Class<?>> types) {
+        super(MediaType.APPLICATION_JSON);
+        this.single = types.stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), type -> (JsonType<Object>) jsonb.type(type)));
+        this.lists = this.single.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().list()));
+    }
+
+    /**
+     * Corps JSON de {@code value} par l'adaptateur généré, ou {@code null} si son type n'en a pas.
+     */
+    @Nullable
+    public byte[] toJsonBytes(Object value) {
+        JsonType<Object> type = typeOf(value);
+        return type == null ? null : type.toJsonBytes(value);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return this.single.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return writableType(type != null ? type : clazz) != null && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        JsonType<Object> writable = type != null ? writableType(type) : null;
+        (writable != null ? writable : typeOf(value)).toJson(value, StreamUtils.nonClosing(outputMessage.getBody()));
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    // DTO généré, ou List / Collection de DTO générés.
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private JsonType<Object> writableType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return this.single.get(clazz);
+        }
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw) && raw.isAssignableFrom(List.class)
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return (JsonType<Object>) (JsonType<?>) this.lists.get(element);
+        }
+        return null;
+    }
+
+    // Type d'une valeur sans information générique : une liste prend le type de son premier élément.
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private JsonType<Object> typeOf(Object value) {
+        if (value instanceof List<?> list && !list.isEmpty() && list.get(0) != null) {
+            return (JsonType<Object>) (JsonType<?>) this.lists.get(list.get(0).getClass());
+        }
+        return this.single.get(value.getClass());
+    }
+}
@@ -0,0 +1,156 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Dates écrites par les sérialiseurs générés exactement comme par Jackson dans Spring Boot :
+ * {@code Date} en ISO UTC à la milliseconde ({@code 2024-01-01T10:00:00.000+00:00}) et
+ * {@code LocalDateTime} en ISO local, secondes toujours présentes.
+ *
+ * <p>Les chiffres sont écrits un à un dans le tampon du writer, sans chaîne intermédiaire :
+ * trois dates par session représentaient l'essentiel de l'allocation par réponse.
+ */
+final class JacksonTimeAdapters {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx")
+            .withZone(ZoneOffset.UTC);
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private JacksonTimeAdapters() {
+    }
+
+    static final class DateAdapter implements JsonAdapter<Date> {
+
+        @Override
+        public void toJson(JsonWriter writer, Date value) {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+            long millis = value.getTime();
+            long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+            int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+            long civil = civilFromDays(days);
+            int year = (int) (civil >> 9);
+            if (year < 1000 || year > 9999) {
+                writer.value(DATE.format(value.toInstant()));
+                return;
+            }
+
+            writer.rawChunkStart();
+            writer.rawChunk('"');
+            writeDate(writer, year, (int) (civil >> 5) & 0xF, (int) civil & 0x1F);
+            writer.rawChunk('T');
+            writeTime(writer, millisOfDay / 3_600_000, millisOfDay / 60_000 % 60, millisOfDay / 1000 % 60);
+            writer.rawChunk('.');
+            writeDigits(writer, millisOfDay % 1000, 3);
+            writer.rawChunk("+00:00\"");
+            writer.rawChunkEnd();
+        }
+
+        @Override
+        public Date fromJson(JsonReader reader) {
+            return reader.isNullValue() ? null : Date.from(OffsetDateTime.parse(reader.readString(), DATE).toInstant());
+        }
+    }
+
+    static final class LocalDateTimeAdapter implements JsonAdapter<LocalDateTime> {
+
+        @Override
+        public void toJson(JsonWriter writer, LocalDateTime value) {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+            if (value.getYear() < 1000 || value.getYear() > 9999) {
+                writer.value(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+                return;
+            }
+
+            writer.rawChunkStart();
+            writer.rawChunk('"');
+            writeDate(writer, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            writer.rawChunk('T');
+            writeTime(writer, value.getHour(), value.getMinute(), value.getSecond());
+            writeFraction(writer, value.getNano());
+            writer.rawChunk('"');
+            writer.rawChunkEnd();
+        }
+
+        @Override
+        public LocalDateTime fromJson(JsonReader reader) {
+            return reader.isNullValue() ? null : LocalDateTime.parse(reader.readString());
+        }
+    }
+
+    private static void writeDate(JsonWriter writer, int year, int month, int day) {
+        writeDigits(writer, year, 4);
+        writer.rawChunk('-');
+        writeDigits(writer, month, 2);
+        writer.rawChunk('-');
+        writeDigits(writer, day, 2);
+    }
+
+    private static void writeTime(JsonWriter writer, int hour, int minute, int second) {
+        writeDigits(writer, hour, 2);
+        writer.rawChunk(':');
+        writeDigits(writer, minute, 2);
+        writer.rawChunk(':');
+        writeDigits(writer, second, 2);
+    }
+
+    // Fraction minimale, zéros de fin retirés, comme ISO_LOCAL_DATE_TIME ; rien si nulle.
+    private static void writeFraction(JsonWriter writer, int nano) {
+        if (nano == 0) {
+            return;
+        }
+        int digits = 9;
+        while (nano % 10 == 0) {
+            nano /= 10;
+            digits--;
+        }
+        writer.rawChunk('.');
+        writeDigits(writer, nano, digits);
+    }
+
+    private static void writeDigits(JsonWriter writer, int value, int width) {
+        for (int divisor = pow10(width - 1); divisor > 0; divisor /= 10) {
+            writer.rawChunk((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    /**
+     * Jour, mois et année (calendrier grégorien proleptique) du jour epoch donné,
+     * empaquetés en {@code year << 9 | month << 5 | day} pour ne rien allouer.
+     */
+    private static long civilFromDays(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+}
@@ -0,0 +1,53 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.dto.UserDto;
+import com.openclassrooms.starterjwt.payload.response.JwtResponse;
+import io.avaje.jsonb.Jsonb;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * {@code application/cbor} à côté du JSON, pour les mêmes contrôleurs : choisi par
+ * l'en-tête Accept (réponses) ou Content-Type (requêtes). Les DTO les plus servis sont
+ * écrits en JSON par des adaptateurs générés à la compilation plutôt que par Jackson.
+ */
+@Configuration
+public class MediaTypesConfig {
+
+    /**
+     * Même configuration Jackson que le JSON (modules, dates), encodée en CBOR.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+
+    /**
+     * Adaptateurs générés par avaje-jsonb, au format de sortie de Jackson : nulls écrits, mêmes dates.
+     */
+    @Bean
+    public Jsonb jsonb() {
+        return Jsonb.builder()
+                .serializeNulls(true)
+                .add(Date.class, new JacksonTimeAdapters.DateAdapter())
+                .add(LocalDateTime.class, new JacksonTimeAdapters.LocalDateTimeAdapter())
+                .build();
+    }
+
+    @Bean
+    public GeneratedJsonHttpMessageConverter generatedJsonHttpMessageConverter(Jsonb jsonb) {
+        return new GeneratedJsonHttpMessageConverter(jsonb,
+                Set.of(SessionDto.class, TeacherDto.class, UserDto.class, JwtResponse.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pool R2DBC des lectures /api/v2 ({@code oc.app.r2dbc}). Le pool n'est pas exposé en bean :
+ * Spring Boot n'auto-configure pas de DataSource JDBC en présence d'une ConnectionFactory.
+ */
+@Configuration
+public class ReactiveReadConfig {
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveReadConfig(@Value("${oc.app.r2dbc.url}") String url,
+                              @Value("${oc.app.r2dbc.username}") String username,
+                              @Value("${oc.app.r2dbc.password:}") String password,
+                              @Value("${oc.app.r2dbc.maxSize:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        // Aucune connexion ouverte au démarrage : la base n'est sollicitée qu'à la première lecture v2.
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(this.connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        this.connectionPool.dispose();
+    }
+}
@@ -0,0 +1,55 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envoie les transactions {@code readOnly} vers le réplica, tout le reste
+ * (écritures, accès hors transaction, migrations) vers la base primaire.
+ * <p>
+ * Doit être enveloppée dans un {@code LazyConnectionDataSourceProxy} : le flag
+ * readOnly n'est positionné qu'après l'ouverture de la transaction.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final Object PRIMARY_READ = new Object();
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    /**
+     * Lit la transaction {@code readOnly} courante sur la primaire, sans la compter
+     * comme une écriture de l'utilisateur. À appeler avant la première requête.
+     */
+    public static void readFromPrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_READ);
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            this.readYourWritesTracker.recordWriteOnCommit();
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.hasResource(PRIMARY_READ)) {
+            return Route.PRIMARY;
+        }
+        return this.readYourWritesTracker.hasRecentWrite() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
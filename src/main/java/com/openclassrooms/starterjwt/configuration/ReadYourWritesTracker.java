@@ -0,0 +1,68 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mémorise, par utilisateur authentifié, l'instant de sa dernière écriture validée.
+ * Pendant la fenêtre qui suit, ses lectures restent sur la base primaire pour
+ * qu'il retrouve ses propres écritures malgré le retard de réplication.
+ * Une entrée expire à la fin de sa fenêtre : seuls les utilisateurs ayant écrit
+ * récemment occupent de la mémoire.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWritesTracker(long windowMs, Clock clock) {
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    /**
+     * Enregistre l'écriture de l'utilisateur courant à la validation de la transaction.
+     */
+    public void recordWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWrites.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    public boolean hasRecentWrite() {
+        String user = currentUser();
+        return user != null && this.recentWrites.getIfPresent(user) != null;
+    }
+
+    // Utilisateurs encore suivis, entrées expirées retirées.
+    long trackedUsers() {
+        this.recentWrites.cleanUp();
+        return this.recentWrites.estimatedSize();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
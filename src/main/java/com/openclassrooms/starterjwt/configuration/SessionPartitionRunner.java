@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.openclassrooms.starterjwt.services.SessionPartitionService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Crée les partitions à venir au démarrage, et supprime les mois révolus à la demande :
+ * <pre>mvn spring-boot:run -Dspring-boot.run.profiles=partitioned -Dspring-boot.run.arguments=--drop-session-partitions-before=2024-01</pre>
+ */
+@Component
+@Profile("partitioned")
+@EnableScheduling
+public class SessionPartitionRunner implements ApplicationRunner {
+
+    static final String DROP_OPTION = "drop-session-partitions-before";
+
+    private final SessionPartitionService sessionPartitionService;
+
+    public SessionPartitionRunner(SessionPartitionService sessionPartitionService) {
+        this.sessionPartitionService = sessionPartitionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        this.sessionPartitionService.ensureFuturePartitions();
+
+        List<String> cutoff = args.getOptionValues(DROP_OPTION);
+        if (cutoff != null && !cutoff.isEmpty()) {
+            this.sessionPartitionService.dropBefore(YearMonth.parse(cutoff.get(0)));
+        }
+    }
+}
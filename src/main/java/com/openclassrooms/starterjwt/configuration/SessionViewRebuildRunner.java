@@ -0,0 +1,29 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.openclassrooms.starterjwt.services.SessionViewService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruit session_view au démarrage lorsqu'elle est vide, ou à la demande :
+ * <pre>mvn spring-boot:run -Dspring-boot.run.arguments=--rebuild-session-view</pre>
+ */
+@Component
+public class SessionViewRebuildRunner implements ApplicationRunner {
+
+    static final String REBUILD_OPTION = "rebuild-session-view";
+
+    private final SessionViewService sessionViewService;
+
+    public SessionViewRebuildRunner(SessionViewService sessionViewService) {
+        this.sessionViewService = sessionViewService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION) || this.sessionViewService.needsRebuild()) {
+            this.sessionViewService.rebuild();
+        }
+    }
+}
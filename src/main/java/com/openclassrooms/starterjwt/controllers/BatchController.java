@@ -0,0 +1,30 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.payload.request.BatchRequest;
+import com.openclassrooms.starterjwt.payload.response.BatchResponse;
+import com.openclassrooms.starterjwt.services.SessionBatchService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    private final SessionBatchService sessionBatchService;
+
+    public BatchController(SessionBatchService sessionBatchService) {
+        this.sessionBatchService = sessionBatchService;
+    }
+
+    /**
+     * Opérations sur les sessions jouées dans l'ordre, avec un résultat par opération.
+     */
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(this.sessionBatchService.execute(request));
+    }
+}
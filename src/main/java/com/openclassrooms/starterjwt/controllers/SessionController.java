@@ -1,14 +1,43 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.SessionChangesDto;
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
+import com.openclassrooms.starterjwt.dto.SeatHoldDto;
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionOccurrenceDto;
+import com.openclassrooms.starterjwt.dto.WaitlistPositionDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SparseFieldRepository.Resource;
+import com.openclassrooms.starterjwt.services.ETags;
+import com.openclassrooms.starterjwt.services.IdempotencyService;
+import com.openclassrooms.starterjwt.services.ResponseCache;
+import com.openclassrooms.starterjwt.services.SeatHoldService;
+import com.openclassrooms.starterjwt.services.SessionChangesService;
+import com.openclassrooms.starterjwt.services.SessionEventStream;
+import com.openclassrooms.starterjwt.services.SessionExportService;
+import com.openclassrooms.starterjwt.services.SessionSeriesService;
 import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.SessionViewService;
+import com.openclassrooms.starterjwt.services.SparseReadService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/session")
@@ -16,29 +45,166 @@ public class SessionController {
 
     private final SessionMapper sessionMapper;
     private final SessionService sessionService;
+    private final SessionViewService sessionViewService;
+    private final SessionEventStream sessionEventStream;
+    private final SessionExportService sessionExportService;
+    private final SessionChangesService sessionChangesService;
+    private final ResponseCache responseCache;
+    private final SparseReadService sparseReadService;
+    private final IdempotencyService idempotencyService;
+    private final SeatHoldService seatHoldService;
+    private final SessionSeriesService sessionSeriesService;
 
-    public SessionController(SessionService sessionService, SessionMapper sessionMapper) {
+    public SessionController(SessionService sessionService,
+                             SessionViewService sessionViewService,
+                             SessionEventStream sessionEventStream,
+                             SessionExportService sessionExportService,
+                             SessionChangesService sessionChangesService,
+                             ResponseCache responseCache,
+                             SparseReadService sparseReadService,
+                             IdempotencyService idempotencyService,
+                             SeatHoldService seatHoldService,
+                             SessionSeriesService sessionSeriesService,
+                             SessionMapper sessionMapper) {
         this.sessionMapper = sessionMapper;
         this.sessionService = sessionService;
+        this.sessionViewService = sessionViewService;
+        this.sessionEventStream = sessionEventStream;
+        this.sessionExportService = sessionExportService;
+        this.sessionChangesService = sessionChangesService;
+        this.responseCache = responseCache;
+        this.sparseReadService = sparseReadService;
+        this.idempotencyService = idempotencyService;
+        this.seatHoldService = seatHoldService;
+        this.sessionSeriesService = sessionSeriesService;
     }
 
+    /**
+     * If-None-Match est vérifié sur la seule version de la session : un 304 ne charge pas la ligne.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<SessionDto> findById(@PathVariable Long id) {
-        Session session = this.sessionService.getById(id);
-        return ResponseEntity.ok(this.sessionMapper.toDto(session));
+    public ResponseEntity<byte[]> findById(@PathVariable Long id, WebRequest request) {
+        return this.responseCache.respond(ResponseCache.session(id), request,
+                () -> this.sessionViewService.getETag(id),
+                () -> this.sessionViewService.getById(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<SessionDto>> findAll() {
-        List<Session> sessions = this.sessionService.findAll();
-        return ResponseEntity.ok(this.sessionMapper.toDto(sessions));
+    public ResponseEntity<byte[]> findAll(WebRequest request) {
+        return this.responseCache.respond(ResponseCache.SESSIONS, request,
+                this.sessionViewService::getListETag,
+                this.sessionViewService::findAll);
     }
 
+    /**
+     * {@code GET /api/session/1?fields=name,date} : seules ces colonnes sont lues et renvoyées, avec l'id.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findById(@PathVariable Long id, @RequestParam String fields,
+                                                        WebRequest request) {
+        List<String> selected = SparseReadService.parse(Resource.SESSION, fields);
+        String eTag = ETags.withFields(this.sessionViewService.getETag(id), selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(this.sparseReadService.findById(Resource.SESSION, id, selected));
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> findAll(@RequestParam String fields, WebRequest request) {
+        List<String> selected = SparseReadService.parse(Resource.SESSION, fields);
+        String eTag = ETags.withFields(this.sessionViewService.getListETag(), selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(this.sparseReadService.findAll(Resource.SESSION, selected));
+    }
+
+    /**
+     * {@code GET /api/session?ids=3,1,2} : un seul select, ordre conservé, identifiants inconnus dans {@code missing}.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<SessionDto>> findAllById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(this.sessionViewService.getByIds(ids));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<byte[]> findAllSummaries(WebRequest request) {
+        return this.responseCache.respond(ResponseCache.SESSION_SUMMARIES, request,
+                this.sessionViewService::getListETag,
+                this.sessionViewService::findAllSummaries);
+    }
+
+    /**
+     * {@code GET /api/session/calendar?from=2026-09-01&to=2027-01-01} : sessions et
+     * occurrences des séries dans {@code [from, to)}, une occurrence non encore
+     * matérialisée ayant un id nul.
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<List<SessionOccurrenceDto>> calendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(this.sessionSeriesService.findOccurrences(from, to));
+    }
+
+    /**
+     * Sessions modifiées et supprimées depuis le watermark d'une synchronisation précédente.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<SessionChangesDto> changes(@RequestParam long since) {
+        return ResponseEntity.ok(this.sessionChangesService.changesSince(since));
+    }
+
+    /**
+     * Deltas de sessions en Server-Sent Events, avec un commentaire de heartbeat
+     * pour garder la connexion ouverte et reprise à partir de Last-Event-ID.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SessionDto>> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Flux<ServerSentEvent<SessionDto>> events = this.sessionEventStream.subscribe(lastEventId)
+                .map(event -> ServerSentEvent.<SessionDto>builder()
+                        .id(String.valueOf(event.id()))
+                        .event(event.type())
+                        .data(event.session())
+                        .build());
+
+        Flux<ServerSentEvent<SessionDto>> heartbeats = Flux.interval(this.sessionEventStream.getHeartbeatInterval())
+                .map(tick -> ServerSentEvent.<SessionDto>builder().comment("heartbeat").build());
+
+        // Un seul abonnement au bus : les heartbeats s'arrêtent avec le flux d'évènements.
+        return events.publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.then())));
+    }
+
+    /**
+     * Export complet (sessions et participants) écrit au fil du curseur, en NDJSON ou en CSV.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(this.sessionExportService::writeNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sessions.csv\"")
+                    .body(this.sessionExportService::writeCsv);
+            default -> throw new BadRequestException("Unsupported export format: " + format);
+        };
+    }
+
+    /**
+     * Avec {@code Idempotency-Key}, une nouvelle tentative reçoit la session déjà créée.
+     */
     @PostMapping
-    public ResponseEntity<SessionDto> create(@Valid @RequestBody SessionDto dto) {
-        Session session = this.sessionMapper.toEntity(dto);
-        Session saved = this.sessionService.create(session, dto);
-        return ResponseEntity.ok(this.sessionMapper.toDto(saved));
+    public ResponseEntity<SessionDto> create(@Valid @RequestBody SessionDto dto,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                             String idempotencyKey) {
+        return this.idempotencyService.execute(idempotencyKey, "session:create", dto, SessionDto.class, () -> {
+            Session session = this.sessionMapper.toEntity(dto);
+            Session saved = this.sessionService.create(session, dto);
+            return ResponseEntity.ok(this.sessionMapper.toDto(saved));
+        });
     }
 
     @PutMapping("{id}")
@@ -55,10 +221,18 @@ public class SessionController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Avec {@code Idempotency-Key}, une nouvelle tentative reçoit 200 au lieu du 400 « déjà inscrit ».
+     */
     @PostMapping("{id}/participate/{userId}")
-    public ResponseEntity<Void> participate(@PathVariable Long id, @PathVariable Long userId) {
-        this.sessionService.participate(id, userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Void> participate(@PathVariable Long id, @PathVariable Long userId,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                            String idempotencyKey) {
+        return this.idempotencyService.execute(idempotencyKey, "session:participate:" + id + ":" + userId, null,
+                Void.class, () -> {
+                    this.sessionService.participate(id, userId);
+                    return ResponseEntity.ok().build();
+                });
     }
 
     @DeleteMapping("{id}/participate/{userId}")
@@ -66,4 +240,53 @@ public class SessionController {
         this.sessionService.noLongerParticipate(id, userId);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Place libre : inscription immédiate. Session complète : ajout en liste d'attente,
+     * l'inscription suivra sans nouvelle requête (évènements {@code waitlist} et
+     * {@code participation} du flux {@code /stream}).
+     */
+    @PostMapping("{id}/waitlist/{userId}")
+    public ResponseEntity<WaitlistPositionDto> joinWaitlist(@PathVariable Long id, @PathVariable Long userId) {
+        return ResponseEntity.ok(this.sessionService.joinWaitlist(id, userId));
+    }
+
+    @GetMapping("{id}/waitlist/{userId}")
+    public ResponseEntity<WaitlistPositionDto> getWaitlistPosition(@PathVariable Long id, @PathVariable Long userId) {
+        return ResponseEntity.ok(this.sessionService.getWaitlistPosition(id, userId));
+    }
+
+    @DeleteMapping("{id}/waitlist/{userId}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long id, @PathVariable Long userId) {
+        this.sessionService.leaveWaitlist(id, userId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Retient une place pour l'utilisateur connecté, le temps de confirmer
+     * ({@code oc.app.seatHold.ttlSeconds}) ; session complète : 409.
+     */
+    @PostMapping("{id}/hold")
+    public ResponseEntity<SeatHoldDto> hold(@PathVariable Long id) {
+        return ResponseEntity.ok(this.seatHoldService.hold(id, currentUserEmail()));
+    }
+
+    @PostMapping("{id}/hold/{holdId}/confirm")
+    public ResponseEntity<Void> confirmHold(@PathVariable Long id, @PathVariable Long holdId) {
+        this.seatHoldService.confirm(id, holdId, currentUserEmail());
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("{id}/hold/{holdId}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id, @PathVariable Long holdId) {
+        this.seatHoldService.cancel(id, holdId, currentUserEmail());
+        return ResponseEntity.ok().build();
+    }
+
+    private static String currentUserEmail() {
+        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getPrincipal();
+        return userDetails.getUsername();
+    }
 }
@@ -0,0 +1,65 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionSeriesMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.services.SessionSeriesService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Date;
+
+/**
+ * Une occurrence est désignée par son début prévu en millisecondes
+ * ({@code occurrence} du calendrier {@code /api/session/calendar}).
+ */
+@RestController
+@RequestMapping("/api/series")
+public class SessionSeriesController {
+
+    private final SessionSeriesService sessionSeriesService;
+    private final SessionSeriesMapper sessionSeriesMapper;
+    private final SessionMapper sessionMapper;
+
+    public SessionSeriesController(SessionSeriesService sessionSeriesService,
+                                   SessionSeriesMapper sessionSeriesMapper,
+                                   SessionMapper sessionMapper) {
+        this.sessionSeriesService = sessionSeriesService;
+        this.sessionSeriesMapper = sessionSeriesMapper;
+        this.sessionMapper = sessionMapper;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SessionSeriesDto> findById(@PathVariable Long id) {
+        return ResponseEntity.ok(this.sessionSeriesMapper.toDto(this.sessionSeriesService.findById(id)));
+    }
+
+    @PostMapping
+    public ResponseEntity<SessionSeriesDto> create(@Valid @RequestBody SessionSeriesDto dto) {
+        SessionSeries series = this.sessionSeriesMapper.toEntity(dto);
+        SessionSeries saved = this.sessionSeriesService.create(series, dto.getTeacher_id());
+        return ResponseEntity.ok(this.sessionSeriesMapper.toDto(saved));
+    }
+
+    /**
+     * Matérialise l'occurrence si besoin, puis inscrit l'utilisateur.
+     */
+    @PostMapping("{id}/occurrences/{occurrence}/participate/{userId}")
+    public ResponseEntity<SessionDto> participate(@PathVariable Long id, @PathVariable long occurrence,
+                                                  @PathVariable Long userId) {
+        Session session = this.sessionSeriesService.participate(id, new Date(occurrence), userId);
+        return ResponseEntity.ok(this.sessionMapper.toDto(session));
+    }
+
+    @PutMapping("{id}/occurrences/{occurrence}")
+    public ResponseEntity<SessionDto> updateOccurrence(@PathVariable Long id, @PathVariable long occurrence,
+                                                       @Valid @RequestBody SessionDto dto) {
+        Session incoming = this.sessionMapper.toEntity(dto);
+        Session updated = this.sessionSeriesService.updateOccurrence(id, new Date(occurrence), incoming, dto);
+        return ResponseEntity.ok(this.sessionMapper.toDto(updated));
+    }
+}
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.repository.SessionViewReactiveRepository;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Catalogue des sessions en lecture seule, sans thread bloqué pendant l'accès à la base.
+ * En {@code application/x-ndjson}, chaque session est écrite dès sa lecture et la suivante
+ * n'est demandée qu'une fois la précédente envoyée.
+ */
+@RestController
+@RequestMapping("/api/v2/session")
+public class SessionV2Controller {
+
+    private final SessionViewReactiveRepository sessionViewReactiveRepository;
+
+    public SessionV2Controller(SessionViewReactiveRepository sessionViewReactiveRepository) {
+        this.sessionViewReactiveRepository = sessionViewReactiveRepository;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<SessionDto> findById(@PathVariable Long id) {
+        return this.sessionViewReactiveRepository.findById(id)
+                .switchIfEmpty(Mono.error(NotFoundException::new));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<SessionDto> findAll() {
+        return this.sessionViewReactiveRepository.findAll();
+    }
+}
@@ -1,16 +1,24 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
 import com.openclassrooms.starterjwt.dto.TeacherDto;
 import com.openclassrooms.starterjwt.mapper.TeacherMapper;
-import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SparseFieldRepository.Resource;
+import com.openclassrooms.starterjwt.services.ETags;
+import com.openclassrooms.starterjwt.services.MultiGet;
+import com.openclassrooms.starterjwt.services.ResponseCache;
+import com.openclassrooms.starterjwt.services.SparseReadService;
 import com.openclassrooms.starterjwt.services.TeacherService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/teacher")
@@ -18,22 +26,56 @@ public class TeacherController {
 
     private final TeacherMapper teacherMapper;
     private final TeacherService teacherService;
+    private final ResponseCache responseCache;
+    private final SparseReadService sparseReadService;
 
     public TeacherController(TeacherService teacherService,
-                             TeacherMapper teacherMapper) {
+                             TeacherMapper teacherMapper,
+                             ResponseCache responseCache,
+                             SparseReadService sparseReadService) {
         this.teacherMapper = teacherMapper;
         this.teacherService = teacherService;
+        this.responseCache = responseCache;
+        this.sparseReadService = sparseReadService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TeacherDto> findById(@PathVariable Long id) {
-        Teacher teacher = this.teacherService.findById(id);
-        return ResponseEntity.ok(this.teacherMapper.toDto(teacher));
+    public ResponseEntity<byte[]> findById(@PathVariable Long id, WebRequest request) {
+        return this.responseCache.respond(ResponseCache.teacher(id), request,
+                () -> this.teacherService.getETag(id),
+                () -> this.teacherMapper.toDto(this.teacherService.findById(id)));
     }
 
     @GetMapping
-    public ResponseEntity<List<TeacherDto>> findAll() {
-        List<Teacher> teachers = this.teacherService.findAll();
-        return ResponseEntity.ok(this.teacherMapper.toDto(teachers));
+    public ResponseEntity<byte[]> findAll(WebRequest request) {
+        return this.responseCache.respond(ResponseCache.TEACHERS, request,
+                this.teacherService::getListETag,
+                () -> this.teacherMapper.toDto(this.teacherService.findAll()));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findById(@PathVariable Long id, @RequestParam String fields,
+                                                        WebRequest request) {
+        List<String> selected = SparseReadService.parse(Resource.TEACHER, fields);
+        String eTag = ETags.withFields(this.teacherService.getETag(id), selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(this.sparseReadService.findById(Resource.TEACHER, id, selected));
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> findAll(@RequestParam String fields, WebRequest request) {
+        List<String> selected = SparseReadService.parse(Resource.TEACHER, fields);
+        String eTag = ETags.withFields(this.teacherService.getListETag(), selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(this.sparseReadService.findAll(Resource.TEACHER, selected));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<TeacherDto>> findAllById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(MultiGet.map(this.teacherService.findAllById(ids), this.teacherMapper::toDto));
     }
 }
@@ -0,0 +1,34 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.repository.TeacherReactiveRepository;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v2/teacher")
+public class TeacherV2Controller {
+
+    private final TeacherReactiveRepository teacherReactiveRepository;
+
+    public TeacherV2Controller(TeacherReactiveRepository teacherReactiveRepository) {
+        this.teacherReactiveRepository = teacherReactiveRepository;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TeacherDto> findById(@PathVariable Long id) {
+        return this.teacherReactiveRepository.findById(id)
+                .switchIfEmpty(Mono.error(NotFoundException::new));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<TeacherDto> findAll() {
+        return this.teacherReactiveRepository.findAll();
+    }
+}
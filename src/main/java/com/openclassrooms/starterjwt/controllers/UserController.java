@@ -1,13 +1,22 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
 import com.openclassrooms.starterjwt.dto.UserDto;
 import com.openclassrooms.starterjwt.mapper.UserMapper;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SparseFieldRepository.Resource;
+import com.openclassrooms.starterjwt.services.ETags;
+import com.openclassrooms.starterjwt.services.MultiGet;
+import com.openclassrooms.starterjwt.services.SparseReadService;
 import com.openclassrooms.starterjwt.services.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/user")
@@ -15,17 +24,40 @@ public class UserController {
 
     private final UserMapper userMapper;
     private final UserService userService;
+    private final SparseReadService sparseReadService;
 
     public UserController(UserService userService,
-                          UserMapper userMapper) {
+                          UserMapper userMapper,
+                          SparseReadService sparseReadService) {
         this.userMapper = userMapper;
         this.userService = userService;
+        this.sparseReadService = sparseReadService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> findById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> findById(@PathVariable Long id, WebRequest request) {
+        String eTag = this.userService.getETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         User user = this.userService.findById(id);
-        return ResponseEntity.ok(this.userMapper.toDto(user));
+        return ResponseEntity.ok().eTag(eTag).body(this.userMapper.toDto(user));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findById(@PathVariable Long id, @RequestParam String fields,
+                                                        WebRequest request) {
+        List<String> selected = SparseReadService.parse(Resource.USER, fields);
+        String eTag = ETags.withFields(this.userService.getETag(id), selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(this.sparseReadService.findById(Resource.USER, id, selected));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<UserDto>> findAllById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(MultiGet.map(this.userService.findAllById(ids), this.userMapper::toDto));
     }
 
     @DeleteMapping("{id}")
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetDto<T> {
+    /**
+     * Éléments trouvés, dans l'ordre des identifiants demandés (doublons retirés).
+     */
+    private List<T> items;
+
+    /**
+     * Identifiants demandés sans élément correspondant.
+     */
+    private List<Long> missing;
+}
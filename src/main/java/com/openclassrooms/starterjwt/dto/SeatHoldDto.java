@@ -0,0 +1,23 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Place retenue pour un utilisateur, à confirmer avant {@code expiresAt}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldDto {
+    private Long id;
+
+    private Long sessionId;
+
+    private Long userId;
+
+    private LocalDateTime expiresAt;
+}
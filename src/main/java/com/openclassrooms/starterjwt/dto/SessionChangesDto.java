@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionChangesDto {
+    /**
+     * À renvoyer en {@code since} à la prochaine synchronisation.
+     */
+    private long watermark;
+
+    /**
+     * Le watermark fourni est antérieur au journal des suppressions :
+     * le client doit recharger le catalogue complet.
+     */
+    private boolean reset;
+
+    private List<SessionDto> sessions;
+
+    private List<Long> deleted;
+}
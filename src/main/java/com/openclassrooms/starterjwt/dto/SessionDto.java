@@ -1,5 +1,7 @@
 package com.openclassrooms.starterjwt.dto;
 
+import io.avaje.jsonb.Json;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
+@Json
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,4 +39,18 @@ public class SessionDto {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    @Min(1)
+    private Integer capacity;
+
+    /**
+     * Utilisateurs en liste d'attente, dans l'ordre de promotion.
+     */
+    private List<Long> waitlist;
+
+    /**
+     * Durée en minutes ; absente à la création : {@link com.openclassrooms.starterjwt.models.Session#DEFAULT_DURATION}.
+     */
+    @Min(1)
+    private Integer duration;
 }
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Entrée du calendrier : session ordinaire, occurrence matérialisée, ou occurrence
+ * calculée d'une série, sans ligne en base ({@code id} nul). {@code occurrence}
+ * (début prévu, en millisecondes) désigne l'occurrence dans
+ * {@code /api/series/{seriesId}/occurrences/{occurrence}}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionOccurrenceDto {
+    private Long id;
+
+    private Long seriesId;
+
+    private Long occurrence;
+
+    private String name;
+
+    private Date date;
+
+    private Long teacher_id;
+
+    private String description;
+
+    private Integer duration;
+
+    private Integer capacity;
+
+    private List<Long> users;
+}
@@ -0,0 +1,53 @@
+package com.openclassrooms.starterjwt.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSeriesDto {
+    private Long id;
+
+    @NotBlank
+    @Size(max = 50)
+    private String name;
+
+    /**
+     * Début de la première occurrence.
+     */
+    @NotNull
+    private Date date;
+
+    @NotNull
+    private Long teacher_id;
+
+    @NotNull
+    @Size(max = 2500)
+    private String description;
+
+    @Min(1)
+    private Integer duration;
+
+    @Min(1)
+    private Integer capacity;
+
+    /**
+     * Règle RRULE, ex. {@code FREQ=WEEKLY;COUNT=12}.
+     */
+    @NotBlank
+    @Size(max = 255)
+    private String recurrence;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.openclassrooms.starterjwt.dto;
 
+import io.avaje.jsonb.Json;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+@Json
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
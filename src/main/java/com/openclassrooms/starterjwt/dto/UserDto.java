@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.avaje.jsonb.Json;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.NonNull;
 
 import java.time.LocalDateTime;
 
+@Json
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,6 +35,7 @@ public class UserDto {
     private boolean admin;
 
     @JsonIgnore
+    @Json.Ignore
     @Size(max = 120)
     private String password;
 
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Place d'un utilisateur dans la liste d'attente d'une session. {@code participating} :
+ * une place s'est libérée, l'utilisateur est inscrit et {@code position} est nulle.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPositionDto {
+    private Long sessionId;
+
+    private Long userId;
+
+    private boolean participating;
+
+    private Integer position;
+}
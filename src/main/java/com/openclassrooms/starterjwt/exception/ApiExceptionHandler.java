@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.exception;
 
 import com.openclassrooms.starterjwt.payload.response.MessageResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -14,6 +15,18 @@ public class ApiExceptionHandler {
         return ResponseEntity.badRequest().body(new MessageResponse(message));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<MessageResponse> handleConflict(ConflictException ex) {
+        String message = (ex.getMessage() != null) ? ex.getMessage() : "Conflict";
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(message));
+    }
+
+    @ExceptionHandler(UnprocessableEntityException.class)
+    public ResponseEntity<MessageResponse> handleUnprocessableEntity(UnprocessableEntityException ex) {
+        String message = (ex.getMessage() != null) ? ex.getMessage() : "Unprocessable entity";
+        return ResponseEntity.unprocessableEntity().body(new MessageResponse(message));
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<Void> handleUnauthorized() {
         return ResponseEntity.status(401).build();
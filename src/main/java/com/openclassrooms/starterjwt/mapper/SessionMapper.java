@@ -10,9 +10,13 @@ public interface SessionMapper extends EntityMapper<SessionDto, Session> {
 
     @Mapping(target = "teacher", ignore = true)
     @Mapping(target = "users", ignore = true)
+    @Mapping(target = "seatsTaken", ignore = true)
+    @Mapping(target = "seriesId", ignore = true)
+    @Mapping(target = "occurrenceStart", ignore = true)
     Session toEntity(SessionDto dto);
 
     @Mapping(source = "teacher.id", target = "teacher_id")
+    @Mapping(target = "waitlist", ignore = true)
     @Mapping(
             target = "users",
             expression = "java(session.getUsers() == null ? java.util.List.of() : session.getUsers().stream().map(u -> u.getId()).toList())"
@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.mapper;
+
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface SessionSeriesMapper extends EntityMapper<SessionSeriesDto, SessionSeries> {
+
+    @Mapping(target = "teacher", ignore = true)
+    @Mapping(target = "endsAt", ignore = true)
+    SessionSeries toEntity(SessionSeriesDto dto);
+
+    @Mapping(source = "teacher.id", target = "teacher_id")
+    SessionSeriesDto toDto(SessionSeries series);
+}
@@ -0,0 +1,91 @@
+package com.openclassrooms.starterjwt.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.openclassrooms.starterjwt.repository.SessionPartitionRepository.maxPartitionClause;
+import static com.openclassrooms.starterjwt.repository.SessionPartitionRepository.partitionClause;
+
+/**
+ * Partitionne sessions (sur date) et participate (sur session_date) par mois.
+ * MySQL uniquement, appliquée avec le profil "partitioned".
+ * <p>
+ * Contraintes MySQL : une table partitionnée n'a pas de clé étrangère, et chaque
+ * clé unique contient la colonne de partitionnement. Les clés étrangères sont donc
+ * remplacées par des triggers, et participate reçoit une copie de la date de session.
+ */
+@Component
+@Profile("partitioned")
+public class V5__PartitionSessionsByMonth extends BaseJavaMigration {
+
+    private final int monthsAhead;
+
+    public V5__PartitionSessionsByMonth(@Value("${oc.app.partitioning.monthsAhead}") int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    /** Le DDL MySQL valide implicitement la transaction. */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        // Les noms des clés étrangères varient selon que le schéma vient de V1 ou de l'ancien ddl-auto.
+        List<Map<String, Object>> foreignKeys = jdbc.queryForList(
+                "select table_name, constraint_name from information_schema.referential_constraints "
+                        + "where constraint_schema = database() "
+                        + "and (table_name in ('sessions', 'participate') "
+                        + "or referenced_table_name in ('sessions', 'participate'))");
+        for (Map<String, Object> fk : foreignKeys) {
+            jdbc.execute("ALTER TABLE " + fk.get("TABLE_NAME") + " DROP FOREIGN KEY " + fk.get("CONSTRAINT_NAME"));
+        }
+
+        jdbc.execute("ALTER TABLE sessions DROP PRIMARY KEY, ADD PRIMARY KEY (id, date)");
+
+        jdbc.execute("ALTER TABLE participate "
+                + "ADD COLUMN session_date DATETIME(6) NOT NULL DEFAULT '1970-01-01 00:00:00'");
+        jdbc.execute("UPDATE participate p JOIN sessions s ON s.id = p.session_id SET p.session_date = s.date");
+        jdbc.execute("ALTER TABLE participate DROP PRIMARY KEY, ADD PRIMARY KEY (session_id, user_id, session_date)");
+
+        // Hibernate n'insère que (session_id, user_id) : la date est recopiée par trigger.
+        jdbc.execute("CREATE TRIGGER trg_participate_session_date BEFORE INSERT ON participate FOR EACH ROW "
+                + "SET NEW.session_date = (SELECT s.date FROM sessions s WHERE s.id = NEW.session_id)");
+        jdbc.execute("CREATE TRIGGER trg_sessions_date_update AFTER UPDATE ON sessions FOR EACH ROW "
+                + "UPDATE participate SET session_date = NEW.date WHERE session_id = NEW.id AND session_date <> NEW.date");
+        jdbc.execute("CREATE TRIGGER trg_sessions_delete AFTER DELETE ON sessions FOR EACH ROW "
+                + "DELETE FROM participate WHERE session_id = OLD.id");
+        jdbc.execute("CREATE TRIGGER trg_users_delete AFTER DELETE ON users FOR EACH ROW "
+                + "DELETE FROM participate WHERE user_id = OLD.id");
+
+        Timestamp oldest = jdbc.queryForObject("select min(date) from sessions", Timestamp.class);
+        YearMonth first = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDateTime());
+        String partitions = partitions(first, YearMonth.now().plusMonths(this.monthsAhead));
+
+        jdbc.execute("ALTER TABLE sessions PARTITION BY RANGE COLUMNS(date) (" + partitions + ")");
+        jdbc.execute("ALTER TABLE participate PARTITION BY RANGE COLUMNS(session_date) (" + partitions + ")");
+    }
+
+    private static String partitions(YearMonth first, YearMonth last) {
+        List<String> clauses = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            clauses.add(partitionClause(month));
+        }
+        clauses.add(maxPartitionClause());
+        return String.join(", ", clauses);
+    }
+}
@@ -1,7 +1,8 @@
 package com.openclassrooms.starterjwt.models;
 
-
+import com.openclassrooms.starterjwt.repository.SessionViewListener;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -22,7 +23,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "sessions")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SessionViewListener.class})
 @Data
 @Accessors(chain = true)
 @EqualsAndHashCode(of = {"id"})
@@ -31,6 +32,8 @@ import java.util.List;
 @AllArgsConstructor
 @ToString
 public class Session {
+    public static final int DEFAULT_DURATION = 60;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,7 +49,7 @@ public class Session {
 
     @NotNull
     @Size(max = 2500)
-    @Column(nullable = false)
+    @Column(nullable = false, length = 2500)
     private String description;
 
     @ToString.Exclude
@@ -61,6 +64,38 @@ public class Session {
             inverseJoinColumns = @JoinColumn(name = "user_id"))
     private List<User> users;
 
+    /**
+     * Nombre de places, {@code null} : sans limite.
+     */
+    @Min(1)
+    private Integer capacity;
+
+    /**
+     * Durée en minutes : la session occupe {@code [date, date + duration)}.
+     */
+    @Min(1)
+    @Column(nullable = false)
+    private Integer duration;
+
+    /**
+     * Compteur des participants, tenu par les mises à jour conditionnelles de
+     * {@link com.openclassrooms.starterjwt.repository.SessionRepository} : jamais
+     * réécrit par un UPDATE de l'entité, dont la valeur chargée peut être périmée.
+     */
+    @ToString.Exclude
+    @Column(name = "seats_taken", nullable = false, updatable = false)
+    private int seatsTaken;
+
+    /**
+     * Occurrence matérialisée d'une {@link SessionSeries} : la série et le début prévu
+     * de l'occurrence, qui reste sa clé même si la date de la session est modifiée.
+     */
+    @Column(name = "series_id", updatable = false)
+    private Long seriesId;
+
+    @Column(name = "occurrence_start", updatable = false)
+    private Date occurrenceStart;
+
     @CreatedDate
     @Column(updatable = false, columnDefinition="TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
@@ -68,4 +103,12 @@ public class Session {
     @UpdateTimestamp
     @Column(columnDefinition="TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    void initSeatsTaken() {
+        this.seatsTaken = this.users == null ? 0 : this.users.size();
+        if (this.duration == null) {
+            this.duration = DEFAULT_DURATION;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.openclassrooms.starterjwt.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Session récurrente : une seule ligne, les occurrences sont calculées à la lecture
+ * à partir de {@code date} et de la règle {@code recurrence}
+ * ({@link com.openclassrooms.starterjwt.services.RecurrenceRule}).
+ */
+@Entity
+@Table(name = "session_series")
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@Accessors(chain = true)
+@EqualsAndHashCode(of = {"id"})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SessionSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 50)
+    @Column(nullable = false)
+    private String name;
+
+    /**
+     * Début de la première occurrence.
+     */
+    @NotNull
+    @Column(nullable = false)
+    private Date date;
+
+    @NotNull
+    @Size(max = 2500)
+    @Column(nullable = false, length = 2500)
+    private String description;
+
+    @ToString.Exclude
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "teacher_id")
+    private Teacher teacher;
+
+    @Min(1)
+    @Column(nullable = false)
+    private Integer duration;
+
+    @Min(1)
+    private Integer capacity;
+
+    @NotBlank
+    @Size(max = 255)
+    @Column(nullable = false)
+    private String recurrence;
+
+    /**
+     * Début de la dernière occurrence, {@code null} pour une série sans fin : borne
+     * la recherche des séries actives sur une période.
+     */
+    @Column(name = "ends_at")
+    private Date endsAt;
+
+    @CreatedDate
+    @Column(updatable = false, columnDefinition="TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(columnDefinition="TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.openclassrooms.starterjwt.models;
 
+import com.openclassrooms.starterjwt.repository.TeacherChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -21,7 +22,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "teachers")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TeacherChangeListener.class})
 @Data
 @Accessors(chain = true)
 @EqualsAndHashCode(of = {"id"})
@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+
+    public enum Op { CREATE, UPDATE, DELETE, PARTICIPATE, UNPARTICIPATE }
+
+    @NotNull
+    private Op op;
+
+    /**
+     * Session visée (UPDATE, DELETE, PARTICIPATE, UNPARTICIPATE).
+     */
+    private Long sessionId;
+
+    /**
+     * Participant (PARTICIPATE, UNPARTICIPATE).
+     */
+    private Long userId;
+
+    /**
+     * Contenu de la session (CREATE, UPDATE).
+     */
+    @Valid
+    private SessionDto session;
+}
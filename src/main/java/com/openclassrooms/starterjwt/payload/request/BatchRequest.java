@@ -0,0 +1,21 @@
+package com.openclassrooms.starterjwt.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRequest {
+    /**
+     * true : une seule transaction, annulée entièrement au premier échec.
+     * false : chaque opération est validée ou annulée seule.
+     */
+    private boolean atomic = true;
+
+    @NotEmpty
+    @Size(max = 200)
+    private List<@Valid BatchOperation> operations;
+}
@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchResponse {
+    /**
+     * Faux si une requête atomique a été annulée : aucune opération n'est conservée.
+     */
+    private boolean committed;
+
+    private List<BatchResult> results;
+}
@@ -0,0 +1,30 @@
+package com.openclassrooms.starterjwt.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    public enum Outcome { OK, FAILED, ROLLED_BACK, SKIPPED }
+
+    private int index;
+
+    private Outcome outcome;
+
+    /**
+     * Statut HTTP qu'aurait renvoyé l'appel unitaire équivalent.
+     */
+    private Integer status;
+
+    private String error;
+
+    /**
+     * Session créée ou modifiée (CREATE, UPDATE).
+     */
+    private SessionDto session;
+}
@@ -1,13 +1,14 @@
 package com.openclassrooms.starterjwt.payload.response;
 
+import io.avaje.jsonb.Json;
 import lombok.Getter;
 import lombok.Setter;
 
+@Json
 @Getter
 @Setter
 public class JwtResponse {
     private String token;
-    private String type = "Bearer";
     private Long id;
     private String username;
     private String firstName;
@@ -15,8 +16,10 @@ public class JwtResponse {
 
     private Boolean admin;
 
-    public JwtResponse(String accessToken, Long id, String username, String firstName, String lastName, Boolean admin) {
-        this.token = accessToken;
+    private String type = "Bearer";
+
+    public JwtResponse(String token, Long id, String username, String firstName, String lastName, Boolean admin) {
+        this.token = token;
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
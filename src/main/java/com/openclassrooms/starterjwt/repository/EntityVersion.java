@@ -0,0 +1,10 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version d'une entité (count = 1) ou d'une liste : nombre de lignes et
+ * dernière modification. Lue sans charger les lignes elles-mêmes.
+ */
+public record EntityVersion(Long count, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,10 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse enregistrée pour une clé d'idempotence : empreinte de la requête d'origine,
+ * statut et corps JSON ({@code null} sans corps).
+ */
+public record IdempotencyRecord(String requestHash, int status, byte[] body, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,50 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Clés d'idempotence (idempotency_keys) : second niveau, derrière la mémoire, pour
+ * rejouer une réponse après un redémarrage ou sur une autre instance.
+ */
+@Repository
+public class IdempotencyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<IdempotencyRecord> find(String userName, String key, LocalDateTime now) {
+        return this.jdbcTemplate.query(
+                        "select request_hash, status, body, expires_at from idempotency_keys "
+                                + "where user_name = ? and idempotency_key = ? and expires_at > ?",
+                        (rs, rowNum) -> new IdempotencyRecord(rs.getString("request_hash"), rs.getInt("status"),
+                                rs.getBytes("body"), rs.getObject("expires_at", LocalDateTime.class)),
+                        userName, key, now)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Remplace une ligne expirée pas encore purgée ; échoue ({@code DuplicateKeyException})
+     * si la clé est encore valide, y compris enregistrée par une autre instance.
+     */
+    public void insert(String userName, String key, IdempotencyRecord record, LocalDateTime createdAt) {
+        this.jdbcTemplate.update(
+                "delete from idempotency_keys where user_name = ? and idempotency_key = ? and expires_at <= ?",
+                userName, key, createdAt);
+        this.jdbcTemplate.update(
+                "insert into idempotency_keys (user_name, idempotency_key, request_hash, status, body, created_at, expires_at) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                userName, key, record.requestHash(), record.status(), record.body(), createdAt, record.expiresAt());
+    }
+
+    public int purgeExpiredBefore(LocalDateTime now) {
+        return this.jdbcTemplate.update("delete from idempotency_keys where expires_at <= ?", now);
+    }
+}
@@ -0,0 +1,9 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.util.Date;
+
+/**
+ * Occurrence d'une série, matérialisée dans {@code sessions} ou annulée.
+ */
+public record OccurrenceKey(Long seriesId, Date occurrenceStart) {
+}
@@ -0,0 +1,44 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Créneaux des sessions et participations, lus en continu pour reconstruire
+ * l'index des créneaux au démarrage.
+ */
+@Repository
+public class ScheduleRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScheduleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachSession(Consumer<SessionSlot> action) {
+        this.jdbcTemplate.query("select id, teacher_id, date, duration from sessions",
+                (RowCallbackHandler) rs -> action.accept(new SessionSlot(rs.getLong("id"),
+                        rs.getObject("teacher_id", Long.class), rs.getTimestamp("date").getTime(),
+                        rs.getInt("duration"))));
+    }
+
+    /**
+     * Appelle {@code action} avec l'id de la session puis celui de l'utilisateur.
+     */
+    public void forEachParticipation(BiConsumer<Long, Long> action) {
+        this.jdbcTemplate.query("select session_id, user_id from participate",
+                (RowCallbackHandler) rs -> action.accept(rs.getLong("session_id"), rs.getLong("user_id")));
+    }
+
+    /**
+     * @param start    début, en millisecondes epoch
+     * @param duration durée en minutes
+     */
+    public record SessionSlot(Long sessionId, Long teacherId, long start, int duration) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.openclassrooms.starterjwt.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Place retenue pour {@code userId} jusqu'à {@code expiresAt}.
+ */
+public record SeatHold(Long id, Long sessionId, Long userId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Accès JDBC à la table seat_holds. Une transaction qui retire une place retenue
+ * verrouille la ligne de la place avant celle de la session.
+ */
+@Repository
+public class SeatHoldRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeatHoldRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Échoue ({@code DuplicateKeyException}) si l'utilisateur retient déjà une place.
+     *
+     * @return identifiant de la place retenue
+     */
+    public long insert(Long sessionId, Long userId, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into seat_holds (session_id, user_id, created_at, expires_at) values (?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setLong(1, sessionId);
+            statement.setLong(2, userId);
+            statement.setTimestamp(3, Timestamp.valueOf(createdAt));
+            statement.setTimestamp(4, Timestamp.valueOf(expiresAt));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Lecture verrouillante : une confirmation ou une annulation concurrente attend,
+     * puis ne trouve plus la ligne.
+     */
+    public Optional<SeatHold> findForUpdate(Long id) {
+        return this.jdbcTemplate.query("select id, session_id, user_id, expires_at from seat_holds where id = ? for update",
+                        (rs, rowNum) -> new SeatHold(rs.getLong("id"), rs.getLong("session_id"),
+                                rs.getLong("user_id"), rs.getTimestamp("expires_at").toLocalDateTime()),
+                        id)
+                .stream()
+                .findFirst();
+    }
+
+    public int delete(Long id) {
+        return this.jdbcTemplate.update("delete from seat_holds where id = ?", id);
+    }
+
+    /**
+     * Places retenues sur la session, comptées dans {@code seats_taken} jusqu'à leur
+     * confirmation ou leur libération.
+     */
+    public int countBySessionId(Long sessionId) {
+        Integer count = this.jdbcTemplate.queryForObject("select count(*) from seat_holds where session_id = ?",
+                Integer.class, sessionId);
+        return count == null ? 0 : count;
+    }
+
+    public int removeBySessionId(Long sessionId) {
+        return this.jdbcTemplate.update("delete from seat_holds where session_id = ?", sessionId);
+    }
+
+    /**
+     * Parcourt toutes les places retenues, sans les charger en mémoire d'un bloc.
+     */
+    public void forEach(Consumer<SeatHold> action) {
+        this.jdbcTemplate.query("select id, session_id, user_id, expires_at from seat_holds",
+                (RowCallbackHandler) rs -> action.accept(new SeatHold(rs.getLong("id"), rs.getLong("session_id"),
+                        rs.getLong("user_id"), rs.getTimestamp("expires_at").toLocalDateTime())));
+    }
+}
@@ -0,0 +1,44 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Journal des suppressions de sessions (session_deletions), lu avec session_view
+ * pour la synchronisation incrémentale.
+ */
+@Repository
+public class SessionChangeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessionChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordDeletion(Long sessionId, LocalDateTime deletedAt) {
+        this.jdbcTemplate.update("insert into session_deletions (session_id, deleted_at) values (?, ?)",
+                sessionId, deletedAt);
+    }
+
+    public void recordDeletions(List<Long> sessionIds, LocalDateTime deletedAt) {
+        this.jdbcTemplate.batchUpdate("insert into session_deletions (session_id, deleted_at) values (?, ?)",
+                sessionIds.stream().map(id -> new Object[]{id, deletedAt}).toList());
+    }
+
+    /**
+     * Sessions supprimées dans la fenêtre {@code [from, to)}.
+     */
+    public List<Long> findDeletedBetween(LocalDateTime from, LocalDateTime to) {
+        return this.jdbcTemplate.queryForList(
+                "select session_id from session_deletions where deleted_at >= ? and deleted_at < ? "
+                        + "order by session_id", Long.class, from, to);
+    }
+
+    public int purgeDeletionsBefore(LocalDateTime before) {
+        return this.jdbcTemplate.update("delete from session_deletions where deleted_at < ?", before);
+    }
+}
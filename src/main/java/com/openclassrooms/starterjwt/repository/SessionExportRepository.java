@@ -0,0 +1,71 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parcours des sessions et de leurs participants par un curseur en avant seule :
+ * chaque ligne est remise au consommateur puis oubliée.
+ */
+@Repository
+public class SessionExportRepository {
+
+    // Tri sur les clés primaires de sessions et participate : pas de tri en mémoire côté base.
+    // La liste d'attente vient de session_view, déjà agrégée par session.
+    private static final String SELECT_ATTENDANCE = "select s.id, s.name, s.date, s.description, s.teacher_id, "
+            + "s.created_at, s.updated_at, s.capacity, s.duration, v.waitlist_ids, p.user_id from sessions s "
+            + "left join session_view v on v.session_id = s.id "
+            + "left join participate p on p.session_id = s.id "
+            + "order by s.id, p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public SessionExportRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${oc.app.export.fetchSize}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Une ligne par participation, et une ligne sans participant pour une session vide.
+     * Lignes triées par session puis par utilisateur.
+     */
+    public void forEachAttendance(Consumer<AttendanceRow> consumer) {
+        this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ATTENDANCE,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(this.fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp date = rs.getTimestamp("date");
+            consumer.accept(new AttendanceRow(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    date == null ? null : new Date(date.getTime()),
+                    rs.getString("description"),
+                    rs.getLong("teacher_id"),
+                    rs.getObject("created_at", LocalDateTime.class),
+                    rs.getObject("updated_at", LocalDateTime.class),
+                    rs.getObject("capacity", Integer.class),
+                    rs.getObject("duration", Integer.class),
+                    SessionViewRepository.toIds(rs.getString("waitlist_ids")),
+                    rs.getObject("user_id", Long.class)));
+        });
+    }
+
+    public record AttendanceRow(Long sessionId, String name, Date date, String description,
+                                Long teacherId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                Integer capacity, Integer duration, List<Long> waitlist, Long userId) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Partitions mensuelles (RANGE COLUMNS sur la date de session) des tables
+ * sessions et participate. MySQL uniquement, profil "partitioned".
+ */
+@Repository
+@Profile("partitioned")
+public class SessionPartitionRepository {
+
+    /** Ordre de suppression : participate avant sessions. */
+    public static final List<String> TABLES = List.of("participate", "sessions");
+
+    public static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessionPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return month.format(NAME_FORMAT);
+    }
+
+    /**
+     * Partition du mois donné : toutes les lignes antérieures au 1er du mois suivant.
+     */
+    public static String partitionClause(YearMonth month) {
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    public static String maxPartitionClause() {
+        return "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)";
+    }
+
+    /**
+     * Mois couverts par les partitions de la table, du plus ancien au plus récent.
+     */
+    public List<YearMonth> findMonths(String table) {
+        return this.jdbcTemplate.queryForList(
+                        "select partition_name from information_schema.partitions "
+                                + "where table_schema = database() and table_name = ? and partition_name <> ? "
+                                + "order by partition_ordinal_position",
+                        String.class, table, MAX_PARTITION)
+                .stream()
+                .map(name -> YearMonth.parse(name, NAME_FORMAT))
+                .toList();
+    }
+
+    /**
+     * Découpe pmax pour y ajouter le mois suivant la dernière partition.
+     */
+    public void addMonth(String table, YearMonth month) {
+        this.jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION
+                + " INTO (" + partitionClause(month) + ", " + maxPartitionClause() + ")");
+    }
+
+    /**
+     * Supprime la partition d'un mois : opération sur les métadonnées, sans DELETE ligne à ligne.
+     */
+    public void dropMonth(String table, YearMonth month) {
+        this.jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partitionName(month));
+    }
+}
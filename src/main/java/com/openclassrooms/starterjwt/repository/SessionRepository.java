@@ -2,8 +2,82 @@ package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
+
+    @Query("select s.id from Session s order by s.id")
+    List<Long> findAllIds();
+
+    /**
+     * Borne sur la date seule : sur une table partitionnée, seules les
+     * partitions antérieures à {@code before} sont lues.
+     */
+    @Query("select s.id from Session s where s.date < :before")
+    List<Long> findIdsByDateBefore(@Param("before") Date before);
+
+    /**
+     * Charge un lot de sessions avec enseignant et participants en une requête.
+     */
+    @Query("select distinct s from Session s join fetch s.teacher left join fetch s.users where s.id in :ids")
+    List<Session> findAllWithRelationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sessions qui commencent dans {@code [from, to)}, avec enseignant et participants.
+     */
+    @Query("select distinct s from Session s join fetch s.teacher left join fetch s.users "
+            + "where s.date >= :from and s.date < :to")
+    List<Session> findAllWithRelationsByDateBetween(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Occurrences matérialisées de ces séries prévues dans {@code [from, to)},
+     * y compris celles dont la date a été déplacée hors de la période.
+     */
+    @Query("select new com.openclassrooms.starterjwt.repository.OccurrenceKey(s.seriesId, s.occurrenceStart) "
+            + "from Session s where s.seriesId in :seriesIds "
+            + "and s.occurrenceStart >= :from and s.occurrenceStart < :to")
+    List<OccurrenceKey> findOccurrenceKeys(@Param("seriesIds") Collection<Long> seriesIds,
+                                           @Param("from") Date from, @Param("to") Date to);
+
+    Optional<Session> findBySeriesIdAndOccurrenceStart(Long seriesId, Date occurrenceStart);
+
+    /**
+     * Réserve une place si la session en a encore : une seule instruction,
+     * qui ne verrouille que la ligne de cette session jusqu'à la fin de la
+     * transaction. Renvoie 0 si la session est complète ou n'existe pas.
+     * Une capacité modifiée dans la transaction est écrite avant.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Session s set s.seatsTaken = s.seatsTaken + 1 "
+            + "where s.id = :id and (s.capacity is null or s.seatsTaken < s.capacity)")
+    int takeSeat(@Param("id") Long id);
+
+    /**
+     * Prend le verrou de la ligne de la session sans rien changer : ajout à la liste
+     * d'attente et promotion sont ainsi sérialisés avec les réservations.
+     * Renvoie 0 si la session n'existe pas.
+     */
+    @Modifying
+    @Query("update Session s set s.seatsTaken = s.seatsTaken where s.id = :id")
+    int lockSeats(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Session s set s.seatsTaken = s.seatsTaken - 1 where s.id = :id and s.seatsTaken > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    /**
+     * Recale le compteur quand la liste des participants est remplacée en bloc.
+     */
+    @Modifying
+    @Query("update Session s set s.seatsTaken = :seatsTaken where s.id = :id")
+    int updateSeatsTaken(@Param("id") Long id, @Param("seatsTaken") int seatsTaken);
 }
@@ -0,0 +1,52 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Accès JDBC à la table session_series_exceptions : occurrences annulées d'une série.
+ */
+@Repository
+public class SessionSeriesExceptionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SessionSeriesExceptionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void cancel(Long seriesId, Date occurrenceStart) {
+        this.jdbcTemplate.update("insert into session_series_exceptions (series_id, occurrence_start) values (?, ?)",
+                seriesId, new Timestamp(occurrenceStart.getTime()));
+    }
+
+    public boolean isCancelled(Long seriesId, Date occurrenceStart) {
+        Integer count = this.jdbcTemplate.queryForObject(
+                "select count(*) from session_series_exceptions where series_id = ? and occurrence_start = ?",
+                Integer.class, seriesId, new Timestamp(occurrenceStart.getTime()));
+        return count != null && count > 0;
+    }
+
+    /**
+     * Occurrences annulées de ces séries prévues dans {@code [from, to)}.
+     */
+    public List<OccurrenceKey> findCancelled(Collection<Long> seriesIds, Date from, Date to) {
+        if (seriesIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = seriesIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        Object[] args = Stream.concat(seriesIds.stream(),
+                Stream.of(new Timestamp(from.getTime()), new Timestamp(to.getTime()))).toArray();
+        return this.jdbcTemplate.query("select series_id, occurrence_start from session_series_exceptions "
+                        + "where series_id in (" + placeholders + ") and occurrence_start >= ? and occurrence_start < ?",
+                (rs, rowNum) -> new OccurrenceKey(rs.getLong("series_id"), rs.getTimestamp("occurrence_start")),
+                args);
+    }
+}
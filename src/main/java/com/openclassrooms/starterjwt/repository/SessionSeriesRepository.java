@@ -0,0 +1,32 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SessionSeriesRepository extends JpaRepository<SessionSeries, Long> {
+
+    /**
+     * Séries dont au moins une occurrence peut tomber dans {@code [from, to)} :
+     * commencées avant {@code to} et pas terminées avant {@code from}.
+     */
+    @Query("select s from SessionSeries s join fetch s.teacher "
+            + "where s.date < :to and (s.endsAt is null or s.endsAt >= :from)")
+    List<SessionSeries> findActiveBetween(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * Sérialise la matérialisation des occurrences d'une série.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SessionSeries s where s.id = :id")
+    Optional<SessionSeries> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,8 @@
+package com.openclassrooms.starterjwt.repository;
+
+/**
+ * Publié par {@link SessionViewListener} à chaque écriture d'une ligne de session_view,
+ * quel que soit le chemin d'écriture (service ou repository).
+ */
+public record SessionViewChangedEvent(Long sessionId) {
+}
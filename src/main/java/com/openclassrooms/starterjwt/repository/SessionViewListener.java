@@ -0,0 +1,46 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.Session;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Répercute chaque écriture d'une {@link Session} dans session_view.
+ * Les callbacks s'exécutent pendant le flush, sur la connexion de la
+ * transaction en cours : la vue est validée ou annulée avec la session.
+ * Une suppression laisse une tombstone pour la synchronisation incrémentale.
+ */
+@Component
+public class SessionViewListener {
+
+    private final SessionViewRepository sessionViewRepository;
+    private final SessionChangeRepository sessionChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SessionViewListener(SessionViewRepository sessionViewRepository,
+                               SessionChangeRepository sessionChangeRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.sessionViewRepository = sessionViewRepository;
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void refresh(Session session) {
+        this.sessionViewRepository.save(session);
+        this.eventPublisher.publishEvent(new SessionViewChangedEvent(session.getId()));
+    }
+
+    @PostRemove
+    public void remove(Session session) {
+        this.sessionViewRepository.deleteById(session.getId());
+        this.sessionChangeRepository.recordDeletion(session.getId(), LocalDateTime.now());
+        this.eventPublisher.publishEvent(new SessionViewChangedEvent(session.getId()));
+    }
+}
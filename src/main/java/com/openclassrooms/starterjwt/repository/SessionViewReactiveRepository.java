@@ -0,0 +1,73 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Lecture non bloquante de session_view : les lignes sont émises au fil du curseur,
+ * à la demande de l'abonné.
+ */
+@Repository
+public class SessionViewReactiveRepository {
+
+    private static final String SELECT_DTO = "select session_id, name, date, description, teacher_id, "
+            + "participant_ids, created_at, updated_at, capacity, waitlist_ids, duration from session_view";
+
+    private final DatabaseClient databaseClient;
+
+    public SessionViewReactiveRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Flux<SessionDto> findAll() {
+        return this.databaseClient.sql(SELECT_DTO + " order by session_id")
+                .map(SessionViewReactiveRepository::toDto)
+                .all();
+    }
+
+    public Mono<SessionDto> findById(Long id) {
+        return this.databaseClient.sql(SELECT_DTO + " where session_id = :id")
+                .bind("id", id)
+                .map(SessionViewReactiveRepository::toDto)
+                .one();
+    }
+
+    private static SessionDto toDto(Readable row) {
+        return new SessionDto(
+                row.get("session_id", Long.class),
+                row.get("name", String.class),
+                toDate(row.get("date", LocalDateTime.class)),
+                row.get("teacher_id", Long.class),
+                row.get("description", String.class),
+                toIds(row.get("participant_ids", String.class)),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("capacity", Integer.class),
+                toIds(row.get("waitlist_ids", String.class)),
+                row.get("duration", Integer.class)
+        );
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return dateTime == null ? null : Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static List<Long> toIds(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+}
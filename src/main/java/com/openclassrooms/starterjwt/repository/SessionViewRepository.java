@@ -0,0 +1,197 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Accès JDBC à la table session_view : une ligne par session, déjà jointe
+ * à l'enseignant et aux participants, lue par un seul select sur la clé.
+ */
+@Repository
+public class SessionViewRepository {
+
+    private static final String SELECT_DTO = "select session_id, name, date, description, teacher_id, "
+            + "participant_ids, created_at, updated_at, capacity, waitlist_ids, duration from session_view";
+
+    private static final String SELECT_SUMMARY = "select session_id, name, date, teacher_id, "
+            + "teacher_first_name, teacher_last_name from session_view";
+
+    private static final String INSERT = "insert into session_view (session_id, name, date, description, "
+            + "teacher_id, teacher_first_name, teacher_last_name, participant_count, participant_ids, "
+            + "created_at, updated_at, capacity, waitlist_ids, duration) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WaitlistRepository waitlistRepository;
+
+    public SessionViewRepository(JdbcTemplate jdbcTemplate, WaitlistRepository waitlistRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    public List<SessionDto> findAll() {
+        return this.jdbcTemplate.query(SELECT_DTO + " order by session_id", this::toDto);
+    }
+
+    public Optional<SessionDto> findById(Long id) {
+        return this.jdbcTemplate.query(SELECT_DTO + " where session_id = ?", this::toDto, id)
+                .stream()
+                .findFirst();
+    }
+
+    public List<SessionDto> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(","));
+        return this.jdbcTemplate.query(SELECT_DTO + " where session_id in (" + placeholders + ")",
+                this::toDto, ids.toArray());
+    }
+
+    public Optional<EntityVersion> findVersionById(Long id) {
+        return this.jdbcTemplate.query("select updated_at from session_view where session_id = ?",
+                        (rs, rowNum) -> new EntityVersion(1L, rs.getObject("updated_at", LocalDateTime.class)), id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Nombre de sessions et dernière modification (index sur updated_at).
+     */
+    public EntityVersion findListVersion() {
+        return this.jdbcTemplate.queryForObject("select count(*), max(updated_at) from session_view",
+                (rs, rowNum) -> new EntityVersion(rs.getLong(1), rs.getObject(2, LocalDateTime.class)));
+    }
+
+    /**
+     * Sessions modifiées dans la fenêtre {@code [from, to)} (index sur updated_at).
+     */
+    public List<SessionDto> findUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return this.jdbcTemplate.query(SELECT_DTO + " where updated_at >= ? and updated_at < ? order by session_id",
+                this::toDto, from, to);
+    }
+
+    public List<SessionSummaryDto> findAllSummaries() {
+        return this.jdbcTemplate.query(SELECT_SUMMARY + " order by session_id", this::toSummary);
+    }
+
+    public void save(Session session) {
+        saveAll(List.of(session));
+    }
+
+    /**
+     * Remplace les lignes des sessions données (suppression puis insertion en batch).
+     * Les listes d'attente sont relues en une requête pour tout le lot.
+     */
+    public void saveAll(List<Session> sessions) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> waitlists = this.waitlistRepository.findUserIdsBySessionIds(
+                sessions.stream().map(Session::getId).toList());
+
+        this.jdbcTemplate.batchUpdate("delete from session_view where session_id = ?", sessions, sessions.size(),
+                (ps, session) -> ps.setLong(1, session.getId()));
+
+        this.jdbcTemplate.batchUpdate(INSERT, sessions, sessions.size(), (ps, session) -> {
+            Teacher teacher = session.getTeacher();
+            List<User> users = session.getUsers() == null ? List.of() : session.getUsers();
+
+            ps.setLong(1, session.getId());
+            ps.setString(2, session.getName());
+            ps.setTimestamp(3, new Timestamp(session.getDate().getTime()));
+            ps.setString(4, session.getDescription());
+            ps.setObject(5, teacher == null ? null : teacher.getId());
+            ps.setString(6, teacher == null ? null : teacher.getFirstName());
+            ps.setString(7, teacher == null ? null : teacher.getLastName());
+            ps.setInt(8, users.size());
+            ps.setString(9, toIdList(users.stream().map(User::getId).toList()));
+            ps.setObject(10, session.getCreatedAt());
+            ps.setObject(11, session.getUpdatedAt());
+            ps.setObject(12, session.getCapacity());
+            ps.setString(13, toIdList(waitlists.getOrDefault(session.getId(), List.of())));
+            ps.setObject(14, session.getDuration());
+        });
+    }
+
+    public void deleteById(Long id) {
+        this.jdbcTemplate.update("delete from session_view where session_id = ?", id);
+    }
+
+    public void deleteAllById(List<Long> ids) {
+        this.jdbcTemplate.batchUpdate("delete from session_view where session_id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Supprime les lignes dont la session n'existe plus.
+     */
+    public int deleteOrphans() {
+        return this.jdbcTemplate.update(
+                "delete from session_view where session_id not in (select id from sessions)");
+    }
+
+    public long count() {
+        Long count = this.jdbcTemplate.queryForObject("select count(*) from session_view", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private SessionDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        return new SessionDto(
+                rs.getLong("session_id"),
+                rs.getString("name"),
+                toDate(rs.getTimestamp("date")),
+                rs.getLong("teacher_id"),
+                rs.getString("description"),
+                toIds(rs.getString("participant_ids")),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getObject("capacity", Integer.class),
+                toIds(rs.getString("waitlist_ids")),
+                rs.getObject("duration", Integer.class)
+        );
+    }
+
+    private SessionSummaryDto toSummary(ResultSet rs, int rowNum) throws SQLException {
+        return new SessionSummaryDto(
+                rs.getLong("session_id"),
+                rs.getString("name"),
+                toDate(rs.getTimestamp("date")),
+                rs.getLong("teacher_id"),
+                rs.getString("teacher_first_name"),
+                rs.getString("teacher_last_name")
+        );
+    }
+
+    static Date toDate(Timestamp timestamp) {
+        return timestamp == null ? null : new Date(timestamp.getTime());
+    }
+
+    static String toIdList(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    static List<Long> toIds(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Lectures restreintes aux champs demandés ({@code fields=}) : le select ne porte que
+ * sur leurs colonnes, et chaque ligne devient une map nom JSON → valeur, au format
+ * des DTO complets. Les sessions sont lues dans session_view, sans jointure.
+ */
+@Repository
+public class SparseFieldRepository {
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, String column) throws SQLException;
+    }
+
+    private record Column(String name, ColumnReader reader) {
+    }
+
+    public enum Resource {
+        SESSION("session_view", "session_id", Map.of(
+                "name", new Column("name", ResultSet::getString),
+                "date", new Column("date", (rs, c) -> SessionViewRepository.toDate(rs.getTimestamp(c))),
+                "teacher_id", new Column("teacher_id", ResultSet::getLong),
+                "description", new Column("description", ResultSet::getString),
+                "users", new Column("participant_ids", (rs, c) -> SessionViewRepository.toIds(rs.getString(c))),
+                "createdAt", new Column("created_at", Resource::dateTime),
+                "updatedAt", new Column("updated_at", Resource::dateTime),
+                "capacity", new Column("capacity", (rs, c) -> rs.getObject(c, Integer.class)),
+                "waitlist", new Column("waitlist_ids", (rs, c) -> SessionViewRepository.toIds(rs.getString(c))),
+                "duration", new Column("duration", (rs, c) -> rs.getObject(c, Integer.class)))),
+        TEACHER("teachers", "id", Map.of(
+                "lastName", new Column("last_name", ResultSet::getString),
+                "firstName", new Column("first_name", ResultSet::getString),
+                "createdAt", new Column("created_at", Resource::dateTime),
+                "updatedAt", new Column("updated_at", Resource::dateTime))),
+        USER("users", "id", Map.of(
+                "email", new Column("email", ResultSet::getString),
+                "lastName", new Column("last_name", ResultSet::getString),
+                "firstName", new Column("first_name", ResultSet::getString),
+                "admin", new Column("admin", ResultSet::getBoolean),
+                "createdAt", new Column("created_at", Resource::dateTime),
+                "updatedAt", new Column("updated_at", Resource::dateTime)));
+
+        private final String table;
+        private final String key;
+        private final Map<String, Column> columns;
+
+        Resource(String table, String key, Map<String, Column> columns) {
+            this.table = table;
+            this.key = key;
+            this.columns = columns;
+        }
+
+        /**
+         * Champs sélectionnables en plus de {@code id}, toujours renvoyé.
+         */
+        public boolean hasField(String field) {
+            return this.columns.containsKey(field);
+        }
+
+        public List<String> fieldNames() {
+            return this.columns.keySet().stream().sorted().toList();
+        }
+
+        private static Object dateTime(ResultSet rs, String column) throws SQLException {
+            return rs.getObject(column, LocalDateTime.class);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SparseFieldRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Map<String, Object>> findAll(Resource resource, List<String> fields) {
+        return this.jdbcTemplate.query(select(resource, fields) + " order by " + resource.key,
+                rowMapper(resource, fields));
+    }
+
+    public Optional<Map<String, Object>> findById(Resource resource, Long id, List<String> fields) {
+        return this.jdbcTemplate.query(select(resource, fields) + " where " + resource.key + " = ?",
+                        rowMapper(resource, fields), id)
+                .stream()
+                .findFirst();
+    }
+
+    // Les noms de colonnes viennent de Resource, jamais de la requête HTTP.
+    private static String select(Resource resource, List<String> fields) {
+        String columns = fields.stream()
+                .map(field -> resource.columns.get(field).name())
+                .collect(Collectors.joining(", "));
+        return "select " + resource.key + (columns.isEmpty() ? "" : ", " + columns) + " from " + resource.table;
+    }
+
+    private static RowMapper<Map<String, Object>> rowMapper(Resource resource, List<String> fields) {
+        return (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getLong(resource.key));
+            for (String field : fields) {
+                Column column = resource.columns.get(field);
+                row.put(field, column.reader().read(rs, column.name()));
+            }
+            return row;
+        };
+    }
+}
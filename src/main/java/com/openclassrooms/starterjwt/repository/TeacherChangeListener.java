@@ -0,0 +1,28 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signale chaque écriture d'un {@link Teacher}, pendant le flush de la transaction en cours.
+ */
+@Component
+public class TeacherChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TeacherChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Teacher teacher) {
+        this.eventPublisher.publishEvent(new TeacherChangedEvent(teacher.getId()));
+    }
+}
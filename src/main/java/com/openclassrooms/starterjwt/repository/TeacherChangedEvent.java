@@ -0,0 +1,7 @@
+package com.openclassrooms.starterjwt.repository;
+
+/**
+ * Publié par {@link TeacherChangeListener} à chaque écriture d'un enseignant.
+ */
+public record TeacherChangedEvent(Long teacherId) {
+}
@@ -0,0 +1,48 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lecture non bloquante de la table teachers.
+ */
+@Repository
+public class TeacherReactiveRepository {
+
+    private static final String SELECT_DTO = "select id, last_name, first_name, created_at, updated_at from teachers";
+
+    private final DatabaseClient databaseClient;
+
+    public TeacherReactiveRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Flux<TeacherDto> findAll() {
+        return this.databaseClient.sql(SELECT_DTO + " order by id")
+                .map(TeacherReactiveRepository::toDto)
+                .all();
+    }
+
+    public Mono<TeacherDto> findById(Long id) {
+        return this.databaseClient.sql(SELECT_DTO + " where id = :id")
+                .bind("id", id)
+                .map(TeacherReactiveRepository::toDto)
+                .one();
+    }
+
+    private static TeacherDto toDto(Readable row) {
+        return new TeacherDto(
+                row.get("id", Long.class),
+                row.get("last_name", String.class),
+                row.get("first_name", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class)
+        );
+    }
+}
@@ -2,8 +2,20 @@ package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+
+    @Query("select new com.openclassrooms.starterjwt.repository.EntityVersion(1L, t.updatedAt) "
+            + "from Teacher t where t.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.openclassrooms.starterjwt.repository.EntityVersion(count(t), max(t.updatedAt)) "
+            + "from Teacher t")
+    EntityVersion findListVersion();
 }
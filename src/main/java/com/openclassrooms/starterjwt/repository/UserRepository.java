@@ -2,6 +2,8 @@ package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +13,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Boolean existsByEmail(String email);
+
+    @Query("select new com.openclassrooms.starterjwt.repository.EntityVersion(1L, u.updatedAt) "
+            + "from User u where u.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 }
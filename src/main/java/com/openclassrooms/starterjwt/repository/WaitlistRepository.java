@@ -0,0 +1,86 @@
+package com.openclassrooms.starterjwt.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Accès JDBC à la table waitlist. Les écritures se font sous le verrou de la
+ * ligne de la session (cf. {@link SessionRepository#lockSeats}).
+ */
+@Repository
+public class WaitlistRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WaitlistRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Échoue ({@code DuplicateKeyException}) si l'utilisateur attend déjà.
+     */
+    public void add(Long sessionId, Long userId, LocalDateTime createdAt) {
+        this.jdbcTemplate.update("insert into waitlist (session_id, user_id, created_at) values (?, ?, ?)",
+                sessionId, userId, createdAt);
+    }
+
+    public int remove(Long sessionId, Long userId) {
+        return this.jdbcTemplate.update("delete from waitlist where session_id = ? and user_id = ?",
+                sessionId, userId);
+    }
+
+    public int removeBySessionId(Long sessionId) {
+        return this.jdbcTemplate.update("delete from waitlist where session_id = ?", sessionId);
+    }
+
+    /**
+     * Premier utilisateur en attente. Lecture verrouillante : elle voit la dernière
+     * version validée, même dans une transaction dont l'instantané est plus ancien.
+     */
+    public Optional<Long> findHead(Long sessionId) {
+        return this.jdbcTemplate.queryForList(
+                        "select user_id from waitlist where session_id = ? order by id limit 1 for update",
+                        Long.class, sessionId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Rang (à partir de 1) de l'utilisateur dans la file, 0 s'il n'y est pas.
+     */
+    public int findPosition(Long sessionId, Long userId) {
+        Integer position = this.jdbcTemplate.queryForObject(
+                "select count(*) from waitlist where session_id = ? "
+                        + "and id <= (select id from waitlist where session_id = ? and user_id = ?)",
+                Integer.class, sessionId, sessionId, userId);
+        return position == null ? 0 : position;
+    }
+
+    /**
+     * Files d'attente des sessions données, dans l'ordre d'arrivée.
+     */
+    public Map<Long, List<Long>> findUserIdsBySessionIds(Collection<Long> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = sessionIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        Map<Long, List<Long>> waitlists = new LinkedHashMap<>();
+        this.jdbcTemplate.query("select session_id, user_id from waitlist where session_id in (" + placeholders
+                        + ") order by session_id, id",
+                (RowCallbackHandler) rs -> waitlists
+                        .computeIfAbsent(rs.getLong("session_id"), id -> new ArrayList<>())
+                        .add(rs.getLong("user_id")),
+                sessionIds.toArray());
+        return waitlists;
+    }
+}
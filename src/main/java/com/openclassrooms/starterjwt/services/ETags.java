@@ -0,0 +1,45 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.EntityVersion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * ETags forts construits à partir de la version d'une entité ou d'une liste.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String kind, Long id, EntityVersion version) {
+        return "\"" + kind + "-" + id + "-" + micros(version.updatedAt()) + "\"";
+    }
+
+    public static String ofList(String kind, EntityVersion version) {
+        return "\"" + kind + "s-" + version.count() + "-" + micros(version.updatedAt()) + "\"";
+    }
+
+    /**
+     * Variante d'un ETag pour une représentation restreinte à certains champs.
+     */
+    public static String withFields(String eTag, List<String> fields) {
+        return variant(eTag, String.join(",", fields));
+    }
+
+    /**
+     * Variante d'un ETag pour une autre représentation de la même version (champs, format).
+     */
+    public static String variant(String eTag, String representation) {
+        return eTag.substring(0, eTag.length() - 1) + ";" + representation + "\"";
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+}
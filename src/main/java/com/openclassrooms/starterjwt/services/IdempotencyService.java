@@ -0,0 +1,241 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.UnprocessableEntityException;
+import com.openclassrooms.starterjwt.repository.IdempotencyRecord;
+import com.openclassrooms.starterjwt.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * En-tête {@code Idempotency-Key} des écritures : la première requête s'exécute et sa
+ * réponse réussie est enregistrée dans la même transaction que l'écriture ; une
+ * nouvelle tentative avec la même clé reçoit cette réponse sans rejouer l'écriture.
+ *
+ * <p>Les réponses sont gardées en mémoire (bornée, durée de vie {@code ttlSeconds}),
+ * puis en base pour un redémarrage ou une autre instance. Une clé est propre à
+ * l'utilisateur ; réutilisée pour une autre requête, elle est refusée (422). Une
+ * tentative arrivée pendant l'exécution de la première reçoit 409. Les échecs ne
+ * sont pas enregistrés : le client peut corriger et réessayer avec la même clé.
+ *
+ * <p>Métrique {@code idempotency.requests{outcome=executed|replayed|conflict}}.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Cache<Key, IdempotencyRecord> responses;
+    private final Set<Key> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${oc.app.idempotency.maxEntries}") long maxEntries,
+                              @Value("${oc.app.idempotency.ttlSeconds}") long ttlSeconds) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.creating((Key key, IdempotencyRecord record) ->
+                        Duration.between(LocalDateTime.now(), record.expiresAt())))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.responses, "idempotency");
+    }
+
+    /**
+     * Exécute {@code action}, ou rejoue la réponse enregistrée pour cette clé.
+     *
+     * @param key       valeur de l'en-tête, {@code null} : exécution simple
+     * @param operation endpoint et identifiants de l'URL, pour distinguer deux requêtes de même corps
+     * @param request   corps de la requête, {@code null} s'il n'y en a pas
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request,
+                                         Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key scoped = new Key(currentUser(), key);
+        String requestHash = hash(operation, request);
+
+        Optional<IdempotencyRecord> stored = find(scoped);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash, bodyType);
+        }
+
+        if (!this.inFlight.add(scoped)) {
+            count("conflict");
+            throw new ConflictException("A request with this " + HEADER + " is in progress");
+        }
+        try {
+            ResponseEntity<T> response = executeAndRecord(scoped, requestHash, action);
+            count("executed");
+            return response;
+        } catch (DuplicateKeyException e) {
+            // Même clé validée entre-temps par une autre instance : notre écriture est annulée.
+            return find(scoped)
+                    .map(record -> replay(record, requestHash, bodyType))
+                    .orElseThrow(() -> new ConflictException("A request with this " + HEADER + " is in progress"));
+        } finally {
+            this.inFlight.remove(scoped);
+        }
+    }
+
+    @Scheduled(cron = "${oc.app.idempotency.purgeCron}")
+    public void purgeExpired() {
+        int purged = this.idempotencyRepository.purgeExpiredBefore(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+
+    private <T> ResponseEntity<T> executeAndRecord(Key scoped, String requestHash, Supplier<ResponseEntity<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord[] recorded = new IdempotencyRecord[1];
+
+        ResponseEntity<T> response = this.transactionTemplate.execute(status -> {
+            ResponseEntity<T> result = action.get();
+            if (result.getStatusCode().is2xxSuccessful()) {
+                recorded[0] = new IdempotencyRecord(requestHash, result.getStatusCode().value(),
+                        toJson(result.getBody()), now.plus(this.ttl));
+                this.idempotencyRepository.insert(scoped.user(), scoped.key(), recorded[0], now);
+            }
+            return result;
+        });
+
+        if (recorded[0] != null) {
+            afterCommit(() -> this.responses.put(scoped, recorded[0]));
+        }
+        return response;
+    }
+
+    // Dans une transaction englobante, la réponse n'est gardée en mémoire qu'une fois l'écriture validée.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Optional<IdempotencyRecord> find(Key scoped) {
+        IdempotencyRecord cached = this.responses.getIfPresent(scoped);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<IdempotencyRecord> stored = this.idempotencyRepository.find(scoped.user(), scoped.key(), LocalDateTime.now());
+        stored.ifPresent(record -> this.responses.put(scoped, record));
+        return stored;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> bodyType) {
+        if (!record.requestHash().equals(requestHash)) {
+            count("conflict");
+            throw new UnprocessableEntityException(HEADER + " was already used for a different request");
+        }
+        count("replayed");
+        return ResponseEntity.status(record.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(fromJson(record.body(), bodyType));
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return body == null ? null : this.objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T fromJson(byte[] body, Class<T> bodyType) {
+        try {
+            return body == null ? null : this.objectMapper.readValue(body, bodyType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            if (request != null) {
+                digest.update((byte) '\n');
+                digest.update(this.objectMapper.writeValueAsBytes(request));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void count(String outcome) {
+        this.meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "";
+        }
+        return authentication.getName();
+    }
+
+    private record Key(String user, String key) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Intervalles {@code [start, end)} identifiés par un id : arbre de recherche trié sur
+ * le début, chaque nœud portant la plus grande fin de son sous-arbre, ce qui écarte
+ * d'emblée les sous-arbres terminés avant l'intervalle cherché. Équilibré en treap
+ * (priorités aléatoires) : ajout, retrait et recherche d'un chevauchement en
+ * O(log n) en moyenne. Non synchronisé.
+ */
+public final class IntervalTree {
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * Ajoute l'intervalle, ou remplace celui de même id.
+     */
+    public void put(long id, long start, long end) {
+        remove(id);
+        Node node = new Node(id, start, end, ThreadLocalRandom.current().nextInt());
+        this.root = insert(this.root, node);
+        this.nodes.put(id, node);
+    }
+
+    public boolean remove(long id) {
+        Node node = this.nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        this.root = delete(this.root, node);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return this.nodes.isEmpty();
+    }
+
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Id d'un intervalle qui chevauche {@code [start, end)}, autre que {@code excludedId} ;
+     * {@code null} s'il n'y en a pas.
+     */
+    public Long findOverlap(long start, long end, long excludedId) {
+        return findOverlap(this.root, start, end, excludedId);
+    }
+
+    private static Long findOverlap(Node node, long start, long end, long excludedId) {
+        if (node == null || node.maxEnd <= start) {
+            return null;
+        }
+        Long found = findOverlap(node.left, start, end, excludedId);
+        if (found != null) {
+            return found;
+        }
+        if (node.start >= end) {
+            // Le sous-arbre droit commence encore plus tard.
+            return null;
+        }
+        if (start < node.end && node.id != excludedId) {
+            return node.id;
+        }
+        return findOverlap(node.right, start, end, excludedId);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        update(node);
+        return node;
+    }
+
+    // Tous les nœuds de left précèdent ceux de right.
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(Node a, Node b) {
+        int byStart = Long.compare(a.start, b.start);
+        return byStart != 0 ? byStart : Long.compare(a.id, b.id);
+    }
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lecture de plusieurs entités par identifiant : une seule requête {@code IN},
+ * résultat remis dans l'ordre de la demande.
+ */
+public final class MultiGet {
+
+    public static final int MAX_IDS = 100;
+
+    private MultiGet() {
+    }
+
+    /**
+     * Identifiants distincts, dans l'ordre de la demande.
+     */
+    public static List<Long> distinct(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("ids must not be empty");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids per request");
+        }
+        return distinct;
+    }
+
+    public static <T> MultiGetDto<T> ordered(List<Long> ids, Collection<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = found.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> items = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            T item = byId.get(id);
+            if (item == null) {
+                missing.add(id);
+            } else {
+                items.add(item);
+            }
+        }
+        return new MultiGetDto<>(items, missing);
+    }
+
+    public static <T, R> MultiGetDto<R> map(MultiGetDto<T> result, Function<T, R> mapper) {
+        return new MultiGetDto<>(result.getItems().stream().map(mapper).toList(), result.getMissing());
+    }
+}
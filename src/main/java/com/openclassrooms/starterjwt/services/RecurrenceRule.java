@@ -0,0 +1,141 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Sous-ensemble des règles RRULE (RFC 5545) : {@code FREQ=DAILY|WEEKLY}, {@code INTERVAL}
+ * et au plus une borne, {@code COUNT} ou {@code UNTIL} (date incluse, {@code yyyyMMdd}).
+ * Ex. {@code FREQ=WEEKLY;COUNT=12}. Les occurrences gardent l'heure locale de la
+ * première (fuseau du serveur), y compris au changement d'heure.
+ */
+public final class RecurrenceRule {
+
+    private final int periodDays;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(int periodDays, Integer count, LocalDate until) {
+        this.periodDays = periodDays;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * @throws BadRequestException règle invalide ou non prise en charge
+     */
+    public static RecurrenceRule parse(String rule) {
+        String freq = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        try {
+            for (String part : rule.split(";")) {
+                String[] keyValue = part.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new BadRequestException("Invalid recurrence: " + rule);
+                }
+                String value = keyValue[1].trim();
+                switch (keyValue[0].trim().toUpperCase()) {
+                    case "FREQ" -> freq = value.toUpperCase();
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE);
+                    default -> throw new BadRequestException("Unsupported recurrence part: " + keyValue[0]);
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid recurrence: " + rule);
+        }
+
+        if (interval < 1 || (count != null && count < 1) || (count != null && until != null)) {
+            throw new BadRequestException("Invalid recurrence: " + rule);
+        }
+        if ("DAILY".equals(freq)) {
+            return new RecurrenceRule(interval, count, until);
+        }
+        if ("WEEKLY".equals(freq)) {
+            return new RecurrenceRule(7 * interval, count, until);
+        }
+        throw new BadRequestException("Unsupported recurrence frequency: " + freq);
+    }
+
+    /**
+     * Débuts des occurrences compris dans {@code [from, to)}, dans l'ordre. Le calcul
+     * part de la première occurrence de la fenêtre : son coût ne dépend que du nombre
+     * d'occurrences renvoyées.
+     */
+    public List<Date> occurrences(Date first, Date from, Date to) {
+        LocalDateTime start = toLocal(first);
+        long days = ChronoUnit.DAYS.between(start.toLocalDate(), toLocal(from).toLocalDate());
+        long k = Math.max(0, Math.floorDiv(days, this.periodDays));
+
+        List<Date> occurrences = new ArrayList<>();
+        for (; isWithinBounds(start, k); k++) {
+            Date occurrence = toDate(start.plusDays(k * this.periodDays));
+            if (!occurrence.before(to)) {
+                break;
+            }
+            if (!occurrence.before(from)) {
+                occurrences.add(occurrence);
+            }
+        }
+        return occurrences;
+    }
+
+    public boolean isOccurrence(Date first, Date start) {
+        LocalDateTime firstLocal = toLocal(first);
+        LocalDateTime local = toLocal(start);
+        long days = ChronoUnit.DAYS.between(firstLocal.toLocalDate(), local.toLocalDate());
+        return days >= 0 && days % this.periodDays == 0
+                && local.toLocalTime().equals(firstLocal.toLocalTime())
+                && isWithinBounds(firstLocal, days / this.periodDays)
+                && toDate(local).equals(start);
+    }
+
+    /**
+     * Faux si la règle s'arrête avant la première occurrence ({@code UNTIL} antérieur au début).
+     */
+    public boolean hasOccurrence(Date first) {
+        return isWithinBounds(toLocal(first), 0);
+    }
+
+    /**
+     * Début de la dernière occurrence, {@code null} pour une série sans fin.
+     */
+    public Date last(Date first) {
+        LocalDateTime start = toLocal(first);
+        if (this.count != null) {
+            return toDate(start.plusDays((long) (this.count - 1) * this.periodDays));
+        }
+        if (this.until != null) {
+            long days = ChronoUnit.DAYS.between(start.toLocalDate(), this.until);
+            return toDate(start.plusDays(Math.max(0, days - Math.floorMod(days, this.periodDays))));
+        }
+        return null;
+    }
+
+    private boolean isWithinBounds(LocalDateTime start, long k) {
+        if (this.count != null) {
+            return k < this.count;
+        }
+        return this.until == null || !start.plusDays(k * this.periodDays).toLocalDate().isAfter(this.until);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,266 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.starterjwt.configuration.GeneratedJsonHttpMessageConverter;
+import com.openclassrooms.starterjwt.configuration.ReadWriteRoutingDataSource;
+import com.openclassrooms.starterjwt.configuration.ReadYourWritesTracker;
+import com.openclassrooms.starterjwt.repository.SessionViewChangedEvent;
+import com.openclassrooms.starterjwt.repository.TeacherChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Réponses déjà sérialisées en JSON ou en CBOR selon l'en-tête Accept (et compressées
+ * en gzip au-delà d'un seuil), indexées par endpoint, paramètres et format. Un succès coûte une lecture de map et la copie
+ * des octets vers la réponse ; l'ETag est gardé avec le corps pour répondre 304.
+ *
+ * <p>Les entrées sont évincées à chaque écriture JPA d'une session (via session_view) ou
+ * d'un enseignant, dès le flush puis à la fin de la transaction (validée ou annulée).
+ * Une lecture commencée avant une éviction n'est pas mise en cache : elle a pu lire
+ * l'état précédent. La durée de vie des entrées borne l'effet d'une modification
+ * faite directement en base.
+ *
+ * <p>Avec un réplica, l'ETag et le corps d'une réponse à mettre en cache sont lus
+ * sur la primaire : une lecture en retard sur le réplica, faite après l'éviction,
+ * serait sinon servie jusqu'à l'expiration de l'entrée.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String SESSIONS = "session:list";
+    public static final String SESSION_SUMMARIES = "session:summary";
+    public static final String TEACHERS = "teacher:list";
+
+    private enum Format { JSON, CBOR }
+
+    private final boolean enabled;
+    private final int gzipMinBytes;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final GeneratedJsonHttpMessageConverter generatedJson;
+    private final Cache<CacheKey, CachedResponse> cache;
+    // Nul sans réplica : les lectures restent dans les transactions des services.
+    private final TransactionTemplate primaryRead;
+
+    // Compteur d'évictions : une mise en cache n'est acceptée que s'il n'a pas bougé.
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         MappingJackson2CborHttpMessageConverter cborConverter,
+                         GeneratedJsonHttpMessageConverter generatedJson,
+                         MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager,
+                         ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                         @Value("${oc.app.responseCache.enabled}") boolean enabled,
+                         @Value("${oc.app.responseCache.maxBytes}") long maxBytes,
+                         @Value("${oc.app.responseCache.ttlSeconds}") long ttlSeconds,
+                         @Value("${oc.app.responseCache.gzipMinBytes}") int gzipMinBytes) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.generatedJson = generatedJson;
+        this.enabled = enabled;
+        this.gzipMinBytes = gzipMinBytes;
+        if (readYourWritesTracker.getIfAvailable() != null) {
+            this.primaryRead = new TransactionTemplate(transactionManager);
+            this.primaryRead.setReadOnly(true);
+        } else {
+            this.primaryRead = null;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CacheKey key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "responses");
+        Gauge.builder("cache.responses.bytes", this.cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("Octets de réponses en cache")
+                .register(meterRegistry);
+    }
+
+    public static String session(Long id) {
+        return "session:" + id;
+    }
+
+    public static String teacher(Long id) {
+        return "teacher:" + id;
+    }
+
+    /**
+     * Sert la réponse depuis le cache, ou la construit : ETag d'abord (304 sans charger
+     * le contenu), puis corps sérialisé une seule fois et mis en cache.
+     */
+    public ResponseEntity<byte[]> respond(String key, WebRequest request,
+                                          Supplier<String> eTag, Supplier<Object> body) {
+        Format format = negotiate(request);
+        CacheKey cacheKey = new CacheKey(key, format);
+        CachedResponse cached = this.enabled ? this.cache.getIfPresent(cacheKey) : null;
+        if (cached == null) {
+            long generation = this.generation.get();
+            String tag = readFromPrimary(eTag);
+            if (format == Format.CBOR) {
+                tag = ETags.variant(tag, "cbor");
+            }
+            if (request.checkNotModified(tag)) {
+                return null;
+            }
+            cached = serialize(format, tag, readFromPrimary(body));
+            if (this.enabled && this.generation.get() == generation) {
+                this.cache.put(cacheKey, cached);
+            }
+        } else if (request.checkNotModified(cached.eTag())) {
+            return null;
+        }
+        return toResponse(format, cached, acceptsGzip(request));
+    }
+
+    private <T> T readFromPrimary(Supplier<T> read) {
+        if (this.primaryRead == null) {
+            return read.get();
+        }
+        return this.primaryRead.execute(status -> {
+            ReadWriteRoutingDataSource.readFromPrimary();
+            return read.get();
+        });
+    }
+
+    @EventListener
+    public void onSessionViewChanged(SessionViewChangedEvent event) {
+        evictSession(event.sessionId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void afterSessionViewChanged(SessionViewChangedEvent event) {
+        evictSession(event.sessionId());
+    }
+
+    @EventListener
+    public void onTeacherChanged(TeacherChangedEvent event) {
+        evictTeacher(event.teacherId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void afterTeacherChanged(TeacherChangedEvent event) {
+        evictTeacher(event.teacherId());
+    }
+
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    private void evictSession(Long sessionId) {
+        this.generation.incrementAndGet();
+        invalidate(session(sessionId));
+        invalidate(SESSIONS);
+        invalidate(SESSION_SUMMARIES);
+    }
+
+    private void evictTeacher(Long teacherId) {
+        this.generation.incrementAndGet();
+        invalidate(teacher(teacherId));
+        invalidate(TEACHERS);
+    }
+
+    private void invalidate(String key) {
+        for (Format format : Format.values()) {
+            this.cache.invalidate(new CacheKey(key, format));
+        }
+    }
+
+    /**
+     * CBOR si le client le demande avec une qualité supérieure au JSON ; JSON sinon, y compris à égalité.
+     */
+    private static Format negotiate(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains(MediaType.APPLICATION_CBOR_VALUE)) {
+            return Format.JSON;
+        }
+        double cbor = 0;
+        double json = 0;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                cbor = Math.max(cbor, mediaType.getQualityValue());
+            } else if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) && !mediaType.isWildcardType()) {
+                json = Math.max(json, mediaType.getQualityValue());
+            }
+        }
+        return cbor > json ? Format.CBOR : Format.JSON;
+    }
+
+    // JSON par les adaptateurs générés quand le type en a, Jackson sinon (résumés, CBOR).
+    private CachedResponse serialize(Format format, String eTag, Object body) {
+        try {
+            byte[] bytes = format == Format.JSON ? this.generatedJson.toJsonBytes(body) : null;
+            if (bytes == null) {
+                bytes = (format == Format.CBOR ? this.cborMapper : this.jsonMapper).writeValueAsBytes(body);
+            }
+            return new CachedResponse(eTag, bytes, bytes.length >= this.gzipMinBytes ? gzip(bytes) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> toResponse(Format format, CachedResponse cached, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format == Format.CBOR ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .eTag(cached.eTag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip && cached.gzip() != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+        }
+        return builder.body(cached.body());
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record CacheKey(String key, Format format) {
+    }
+
+    private record CachedResponse(String eTag, byte[] body, byte[] gzip) {
+
+        int weight() {
+            return this.body.length + (this.gzip == null ? 0 : this.gzip.length) + this.eTag.length();
+        }
+    }
+}
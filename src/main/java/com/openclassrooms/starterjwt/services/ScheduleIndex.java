@@ -0,0 +1,266 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.ScheduleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Créneaux occupés par chaque enseignant et chaque utilisateur, en mémoire : un
+ * {@link IntervalTree} chacun. Vérifier qu'une session n'en chevauche pas une autre
+ * coûte O(log n), sans relire les sessions de l'enseignant ou de l'utilisateur.
+ *
+ * <p>L'index est mis à jour dans la transaction de l'écriture, sous le même verrou
+ * que la vérification : de deux réservations simultanées qui se chevauchent, la
+ * seconde est refusée. Si la transaction est annulée, le créneau qu'elle avait
+ * remplacé est rétabli, sauf si une autre transaction l'a modifié depuis.
+ * Reconstruit depuis la base au démarrage, avant que l'application ne reçoive de
+ * requêtes ; propre à l'instance.
+ *
+ * <p>Un {@link ReentrantLock} plutôt que {@code synchronized} : un thread virtuel
+ * qui attend le verrou n'épingle pas son thread porteur. Les lectures en base du
+ * rechargement se font hors verrou.
+ */
+@Slf4j
+@Component
+public class ScheduleIndex implements SmartInitializingSingleton {
+
+    private final ScheduleRepository scheduleRepository;
+    private final Map<Long, IntervalTree> teachers = new HashMap<>();
+    private final Map<Long, IntervalTree> users = new HashMap<>();
+    private final Map<Long, Slot> sessions = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ScheduleIndex(ScheduleRepository scheduleRepository) {
+        this.scheduleRepository = scheduleRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Map<Long, Slot> slots = new HashMap<>();
+        this.scheduleRepository.forEachSession(row -> slots.put(row.sessionId(), new Slot(row.teacherId(),
+                row.start(), row.start() + row.duration() * 60_000L, new HashSet<>())));
+        this.scheduleRepository.forEachParticipation((sessionId, userId) -> {
+            Slot slot = slots.get(sessionId);
+            if (slot != null) {
+                slot.userIds().add(userId);
+            }
+        });
+
+        this.lock.lock();
+        try {
+            this.teachers.clear();
+            this.users.clear();
+            this.sessions.clear();
+            slots.forEach((sessionId, slot) -> apply(sessionId, null, slot));
+            log.info("Indexed {} session slots for {} teachers and {} users",
+                    this.sessions.size(), this.teachers.size(), this.users.size());
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Refuse (409) un enseignant ou un participant déjà pris sur le créneau, puis
+     * enregistre la session : création, modification, liste de participants en bloc.
+     */
+    public void book(Session session) {
+        Slot slot = Slot.of(session);
+        this.lock.lock();
+        try {
+            if (slot.teacherId() != null
+                    && findOverlap(this.teachers, slot.teacherId(), slot, session.getId()) != null) {
+                throw new ConflictException("Teacher is already booked at this time");
+            }
+            for (Long userId : slot.userIds()) {
+                if (findOverlap(this.users, userId, slot, session.getId()) != null) {
+                    throw new ConflictException("User is already booked at this time");
+                }
+            }
+            put(session.getId(), slot);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Refuse (409) un utilisateur déjà inscrit sur le créneau, puis enregistre la
+     * session, dont il doit déjà faire partie.
+     */
+    public void bookUser(Session session, Long userId) {
+        Slot slot = Slot.of(session);
+        this.lock.lock();
+        try {
+            checkUser(slot, session.getId(), userId);
+            put(session.getId(), slot);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void checkUser(Session session, Long userId) {
+        Slot slot = Slot.of(session);
+        this.lock.lock();
+        try {
+            checkUser(slot, session.getId(), userId);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Enregistre la session sans vérification (participants retirés, liste remplacée en bloc).
+     */
+    public void update(Session session) {
+        Slot slot = Slot.of(session);
+        this.lock.lock();
+        try {
+            put(session.getId(), slot);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void remove(Long sessionId) {
+        this.lock.lock();
+        try {
+            put(sessionId, null);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void checkUser(Slot slot, Long sessionId, Long userId) {
+        if (findOverlap(this.users, userId, slot, sessionId) != null) {
+            throw new ConflictException("User is already booked at this time");
+        }
+    }
+
+    private void put(Long sessionId, Slot slot) {
+        Slot previous = this.sessions.get(sessionId);
+        apply(sessionId, previous, slot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes().computeIfAbsent(sessionId, id -> new Change(previous)).last = slot;
+        }
+    }
+
+    /**
+     * Changements de la transaction courante : pour chaque session, le créneau
+     * d'avant la transaction et le dernier qu'elle a enregistré.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Change> changes() {
+        Map<Long, Change> changes = (Map<Long, Change>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<Long, Change> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ScheduleIndex.this);
+                    if (status != STATUS_COMMITTED) {
+                        rollback(bound);
+                    }
+                }
+            });
+            changes = bound;
+        }
+        return changes;
+    }
+
+    // N'annule que ce que la transaction a écrit : un créneau remplacé depuis par une
+    // autre transaction est laissé tel quel.
+    private void rollback(Map<Long, Change> changes) {
+        this.lock.lock();
+        try {
+            changes.forEach((sessionId, change) -> {
+                Slot current = this.sessions.get(sessionId);
+                if (current == change.last) {
+                    apply(sessionId, current, change.previous);
+                }
+            });
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // Ne touche que les arbres qui changent : ajouter un participant coûte O(log n).
+    private void apply(Long sessionId, Slot from, Slot to) {
+        boolean moved = from == null || to == null || from.start() != to.start() || from.end() != to.end();
+
+        if (from != null && from.teacherId() != null && (moved || !Objects.equals(from.teacherId(), to.teacherId()))) {
+            removeFrom(this.teachers, from.teacherId(), sessionId);
+        }
+        if (to != null && to.teacherId() != null && (moved || !Objects.equals(from.teacherId(), to.teacherId()))) {
+            this.teachers.computeIfAbsent(to.teacherId(), id -> new IntervalTree()).put(sessionId, to.start(), to.end());
+        }
+        if (from != null) {
+            for (Long userId : from.userIds()) {
+                if (moved || !to.userIds().contains(userId)) {
+                    removeFrom(this.users, userId, sessionId);
+                }
+            }
+        }
+        if (to != null) {
+            for (Long userId : to.userIds()) {
+                if (moved || !from.userIds().contains(userId)) {
+                    this.users.computeIfAbsent(userId, id -> new IntervalTree()).put(sessionId, to.start(), to.end());
+                }
+            }
+            this.sessions.put(sessionId, to);
+        } else {
+            this.sessions.remove(sessionId);
+        }
+    }
+
+    private static void removeFrom(Map<Long, IntervalTree> trees, Long key, Long sessionId) {
+        IntervalTree tree = trees.get(key);
+        if (tree != null && tree.remove(sessionId) && tree.isEmpty()) {
+            trees.remove(key);
+        }
+    }
+
+    private static Long findOverlap(Map<Long, IntervalTree> trees, Long key, Slot slot, Long sessionId) {
+        IntervalTree tree = trees.get(key);
+        return tree == null ? null : tree.findOverlap(slot.start(), slot.end(), sessionId == null ? -1 : sessionId);
+    }
+
+    private static final class Change {
+        final Slot previous;
+        Slot last;
+
+        Change(Slot previous) {
+            this.previous = previous;
+        }
+    }
+
+    private record Slot(Long teacherId, long start, long end, Set<Long> userIds) {
+
+        static Slot of(Session session) {
+            long start = session.getDate().getTime();
+            int duration = session.getDuration() == null ? Session.DEFAULT_DURATION : session.getDuration();
+            Set<Long> userIds = new HashSet<>();
+            if (session.getUsers() != null) {
+                session.getUsers().stream().map(User::getId).forEach(userIds::add);
+            }
+            return new Slot(session.getTeacher() == null ? null : session.getTeacher().getId(),
+                    start, start + duration * 60_000L, userIds);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publié par {@link SeatHoldService} ; l'expiration n'est programmée qu'une fois
+ * la transaction validée.
+ */
+public record SeatHoldCreatedEvent(Long holdId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,84 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Rend les places retenues à leur échéance, sans parcourir la table : chaque place
+ * est programmée dans une {@link TimingWheel} à sa création, et relue en base au
+ * démarrage. Chaque instance reprogramme toutes les places ; l'expiration d'une
+ * place déjà rendue, confirmée ou annulée est sans effet.
+ *
+ * <p>Métriques {@code seat_holds.scheduled} (places en attente d'échéance) et
+ * {@code seat_holds.expired}.
+ */
+@Slf4j
+@Component
+public class SeatHoldExpiry {
+
+    private static final int SLOTS = 64;
+    private static final int LEVELS = 4;
+
+    private final SeatHoldService seatHoldService;
+    private final SeatHoldRepository seatHoldRepository;
+    private final MeterRegistry meterRegistry;
+    private final TimingWheel<Long> wheel;
+
+    public SeatHoldExpiry(SeatHoldService seatHoldService,
+                          SeatHoldRepository seatHoldRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${oc.app.seatHold.tickMs}") long tickMs) {
+        this.seatHoldService = seatHoldService;
+        this.seatHoldRepository = seatHoldRepository;
+        this.meterRegistry = meterRegistry;
+        this.wheel = new TimingWheel<>(tickMs, SLOTS, LEVELS, System.currentTimeMillis());
+
+        meterRegistry.gauge("seat_holds.scheduled", this.wheel, TimingWheel::size);
+    }
+
+    @TransactionalEventListener
+    public void onHoldCreated(SeatHoldCreatedEvent event) {
+        this.wheel.schedule(event.holdId(), toMillis(event.expiresAt()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int[] count = new int[1];
+        this.seatHoldRepository.forEach(hold -> {
+            this.wheel.schedule(hold.id(), toMillis(hold.expiresAt()));
+            count[0]++;
+        });
+        log.info("Scheduled expiry of {} seat holds", count[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${oc.app.seatHold.tickMs}")
+    public void tick() {
+        List<Long> expired = this.wheel.advance(System.currentTimeMillis());
+        for (Long holdId : expired) {
+            try {
+                if (this.seatHoldService.expire(holdId)) {
+                    this.meterRegistry.counter("seat_holds.expired").increment();
+                }
+            } catch (RuntimeException e) {
+                // Reprogrammée au prochain tick plutôt que perdue jusqu'au redémarrage.
+                log.warn("Could not release seat hold {}", holdId, e);
+                this.wheel.schedule(holdId, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,145 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SeatHoldDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SeatHold;
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Places retenues le temps d'un paiement : comptées dans la capacité dès leur
+ * création, confirmées en inscription ou rendues à expiration ({@link SeatHoldExpiry}).
+ *
+ * <p>Confirmation, annulation et expiration suppriment la ligne de seat_holds sous
+ * verrou avant de toucher la session : une seule des trois aboutit.
+ */
+@Service
+public class SeatHoldService {
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final SessionRepository sessionRepository;
+    private final UserRepository userRepository;
+    private final SessionService sessionService;
+    private final ScheduleIndex scheduleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+
+    public SeatHoldService(SeatHoldRepository seatHoldRepository,
+                           SessionRepository sessionRepository,
+                           UserRepository userRepository,
+                           SessionService sessionService,
+                           ScheduleIndex scheduleIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${oc.app.seatHold.ttlSeconds}") long ttlSeconds) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.sessionRepository = sessionRepository;
+        this.userRepository = userRepository;
+        this.sessionService = sessionService;
+        this.scheduleIndex = scheduleIndex;
+        this.eventPublisher = eventPublisher;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Comme une inscription, la place est prise avant toute lecture ; session
+     * complète : 409.
+     */
+    @Transactional
+    public SeatHoldDto hold(Long id, String email) {
+        if (this.sessionRepository.takeSeat(id) == 0) {
+            throw this.sessionRepository.existsById(id)
+                    ? new ConflictException("Session is full")
+                    : new NotFoundException();
+        }
+
+        User user = this.userRepository.findByEmail(email)
+                .orElseThrow(NotFoundException::new);
+        Session session = this.sessionRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+        if (session.getUsers().stream().anyMatch(u -> u.getId().equals(user.getId()))) {
+            throw new BadRequestException();
+        }
+        this.scheduleIndex.checkUser(session, user.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(this.ttl);
+        long holdId;
+        try {
+            holdId = this.seatHoldRepository.insert(id, user.getId(), now, expiresAt);
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("Seat already held");
+        }
+        this.eventPublisher.publishEvent(new SeatHoldCreatedEvent(holdId, expiresAt));
+        return new SeatHoldDto(holdId, id, user.getId(), expiresAt);
+    }
+
+    /**
+     * Transforme la place retenue en inscription. Expirée ou inconnue : 404 ; une
+     * place expirée mais pas encore rendue le sera au prochain tick.
+     */
+    @Transactional
+    public void confirm(Long id, Long holdId, String email) {
+        SeatHold hold = findOwned(id, holdId, email);
+        if (!hold.expiresAt().isAfter(LocalDateTime.now())) {
+            throw new NotFoundException();
+        }
+        this.seatHoldRepository.delete(holdId);
+        this.sessionService.confirmHeldSeat(id, hold.userId());
+    }
+
+    @Transactional
+    public void cancel(Long id, Long holdId, String email) {
+        findOwned(id, holdId, email);
+        this.seatHoldRepository.delete(holdId);
+        this.sessionService.releaseHeldSeat(id);
+    }
+
+    /**
+     * Appelé à l'échéance ; sans effet si la place a été confirmée ou annulée entre-temps.
+     *
+     * @return {@code true} si la place a été rendue
+     */
+    @Transactional
+    public boolean expire(Long holdId) {
+        Optional<SeatHold> hold = this.seatHoldRepository.findForUpdate(holdId);
+        if (hold.isEmpty()) {
+            return false;
+        }
+        this.seatHoldRepository.delete(holdId);
+        this.sessionService.releaseHeldSeat(hold.get().sessionId());
+        return true;
+    }
+
+    /**
+     * Verrouille la place retenue puis la session, avant toute lecture : la suite
+     * de la transaction voit les inscriptions validées entre-temps.
+     */
+    private SeatHold findOwned(Long id, Long holdId, String email) {
+        SeatHold hold = this.seatHoldRepository.findForUpdate(holdId)
+                .filter(h -> h.sessionId().equals(id))
+                .orElseThrow(NotFoundException::new);
+        if (this.sessionRepository.lockSeats(id) == 0) {
+            throw new NotFoundException();
+        }
+        User user = this.userRepository.findByEmail(email)
+                .orElseThrow(NotFoundException::new);
+        if (!hold.userId().equals(user.getId())) {
+            throw new NotFoundException();
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,156 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.payload.request.BatchOperation;
+import com.openclassrooms.starterjwt.payload.request.BatchRequest;
+import com.openclassrooms.starterjwt.payload.response.BatchResponse;
+import com.openclassrooms.starterjwt.payload.response.BatchResult;
+import com.openclassrooms.starterjwt.payload.response.BatchResult.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exécute dans l'ordre une liste d'opérations sur les sessions et les participations,
+ * avec les mêmes règles que les appels unitaires de {@link SessionService}.
+ *
+ * <p>En mode atomique, tout passe dans une transaction : les écritures sont envoyées
+ * au flush final, regroupées en batchs JDBC ({@code hibernate.jdbc.batch_size}).
+ * Le premier échec annule l'ensemble et les opérations suivantes ne sont pas jouées.
+ * Sinon, chaque opération a sa propre transaction : un échec n'annule qu'elle-même.
+ */
+@Service
+public class SessionBatchService {
+
+    private final SessionService sessionService;
+    private final SessionMapper sessionMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public SessionBatchService(SessionService sessionService,
+                               SessionMapper sessionMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.sessionService = sessionService;
+        this.sessionMapper = sessionMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BatchResponse execute(BatchRequest request) {
+        return request.isAtomic() ? executeAtomic(request.getOperations()) : executeEach(request.getOperations());
+    }
+
+    private BatchResponse executeAtomic(List<BatchOperation> operations) {
+        List<BatchResult> results = new ArrayList<>(operations.size());
+
+        Boolean committed = this.transactionTemplate.execute(status -> {
+            for (int i = 0; i < operations.size(); i++) {
+                BatchResult result = apply(i, operations.get(i));
+                results.add(result);
+                if (result.getOutcome() == Outcome.FAILED) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(committed)) {
+            return new BatchResponse(true, results);
+        }
+
+        List<BatchResult> rolledBack = new ArrayList<>(operations.size());
+        for (BatchResult result : results) {
+            rolledBack.add(result.getOutcome() == Outcome.OK
+                    ? new BatchResult(result.getIndex(), Outcome.ROLLED_BACK, null, null, null)
+                    : result);
+        }
+        for (int i = results.size(); i < operations.size(); i++) {
+            rolledBack.add(new BatchResult(i, Outcome.SKIPPED, null, null, null));
+        }
+        return new BatchResponse(false, rolledBack);
+    }
+
+    private BatchResponse executeEach(List<BatchOperation> operations) {
+        List<BatchResult> results = new ArrayList<>(operations.size());
+
+        for (int i = 0; i < operations.size(); i++) {
+            int index = i;
+            BatchResult result;
+            try {
+                result = this.transactionTemplate.execute(status -> {
+                    BatchResult applied = apply(index, operations.get(index));
+                    if (applied.getOutcome() == Outcome.FAILED) {
+                        status.setRollbackOnly();
+                    }
+                    return applied;
+                });
+            } catch (RuntimeException e) {
+                result = failed(index, HttpStatus.INTERNAL_SERVER_ERROR, null);
+            }
+            results.add(result);
+        }
+        return new BatchResponse(true, results);
+    }
+
+    private BatchResult apply(int index, BatchOperation operation) {
+        try {
+            SessionDto session = switch (operation.getOp()) {
+                case CREATE -> create(operation);
+                case UPDATE -> update(operation);
+                case DELETE -> {
+                    this.sessionService.delete(require(operation.getSessionId(), "sessionId"));
+                    yield null;
+                }
+                case PARTICIPATE -> {
+                    this.sessionService.participate(require(operation.getSessionId(), "sessionId"),
+                            require(operation.getUserId(), "userId"));
+                    yield null;
+                }
+                case UNPARTICIPATE -> {
+                    this.sessionService.noLongerParticipate(require(operation.getSessionId(), "sessionId"),
+                            require(operation.getUserId(), "userId"));
+                    yield null;
+                }
+            };
+            return new BatchResult(index, Outcome.OK, HttpStatus.OK.value(), null, session);
+        } catch (NotFoundException e) {
+            return failed(index, HttpStatus.NOT_FOUND, null);
+        } catch (BadRequestException e) {
+            return failed(index, HttpStatus.BAD_REQUEST, e.getMessage());        } catch (ConflictException e) {
+            return failed(index, HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    private SessionDto create(BatchOperation operation) {
+        SessionDto dto = require(operation.getSession(), "session");
+        Session saved = this.sessionService.create(this.sessionMapper.toEntity(dto), dto);
+        return this.sessionMapper.toDto(saved);
+    }
+
+    private SessionDto update(BatchOperation operation) {
+        Long id = require(operation.getSessionId(), "sessionId");
+        SessionDto dto = require(operation.getSession(), "session");
+        Session updated = this.sessionService.update(id, this.sessionMapper.toEntity(dto), dto);
+        return this.sessionMapper.toDto(updated);
+    }
+
+    private static <T> T require(T value, String field) {
+        if (value == null) {
+            throw new BadRequestException(field + " is required");
+        }
+        return value;
+    }
+
+    private static BatchResult failed(int index, HttpStatus status, String error) {
+        return new BatchResult(index, Outcome.FAILED, status.value(),
+                error != null ? error : status.getReasonPhrase(), null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.openclassrooms.starterjwt.services;
+
+/**
+ * Publié par {@link SessionService} à chaque écriture sur une session,
+ * diffusé après validation de la transaction.
+ */
+public record SessionChangedEvent(Type type, Long sessionId) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, PARTICIPATION, WAITLIST
+    }
+}
@@ -0,0 +1,83 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.configuration.ReadWriteRoutingDataSource;
+import com.openclassrooms.starterjwt.dto.SessionChangesDto;
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
+import com.openclassrooms.starterjwt.repository.SessionViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Synchronisation incrémentale du catalogue. Chaque appel couvre la fenêtre
+ * {@code [since, now - lag)} et renvoie sa borne haute comme watermark : deux appels
+ * successifs ne se recouvrent pas. Le délai {@code lag} laisse aux transactions
+ * en cours le temps de valider une ligne horodatée juste avant la borne.
+ */
+@Slf4j
+@Service
+public class SessionChangesService {
+
+    private final SessionViewRepository sessionViewRepository;
+    private final SessionChangeRepository sessionChangeRepository;
+    private final Duration lag;
+    private final Duration tombstoneRetention;
+
+    public SessionChangesService(SessionViewRepository sessionViewRepository,
+                                 SessionChangeRepository sessionChangeRepository,
+                                 @Value("${oc.app.sync.lagMs}") long lagMs,
+                                 @Value("${oc.app.sync.tombstoneRetentionDays}") long tombstoneRetentionDays) {
+        this.sessionViewRepository = sessionViewRepository;
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.lag = Duration.ofMillis(lagMs);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    /**
+     * Lu sur la primaire : un réplica en retard manquerait des lignes de la fenêtre.
+     * Transaction en lecture seule, pour que le client ne soit pas compté comme
+     * ayant écrit et que ses autres lectures restent sur le réplica.
+     *
+     * @param since watermark d'un appel précédent (millisecondes epoch) ; 0 au premier appel,
+     *              la réponse demande alors un chargement complet ({@code reset})
+     */
+    @Transactional(readOnly = true)
+    public SessionChangesDto changesSince(long since) {
+        ReadWriteRoutingDataSource.readFromPrimary();
+        Instant now = Instant.now();
+        long until = Math.max(since, now.minus(this.lag).toEpochMilli());
+
+        if (since < now.minus(this.tombstoneRetention).toEpochMilli()) {
+            return new SessionChangesDto(until, true, List.of(), List.of());
+        }
+
+        LocalDateTime from = toLocalDateTime(since);
+        LocalDateTime to = toLocalDateTime(until);
+        return new SessionChangesDto(until, false,
+                this.sessionViewRepository.findUpdatedBetween(from, to),
+                this.sessionChangeRepository.findDeletedBetween(from, to));
+    }
+
+    /**
+     * Les clients plus anciens que la rétention reçoivent {@code reset}.
+     */
+    @Scheduled(cron = "${oc.app.sync.purgeCron}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime before = LocalDateTime.now().minus(this.tombstoneRetention);
+        int purged = this.sessionChangeRepository.purgeDeletionsBefore(before);
+        log.info("Purged {} session tombstones older than {}", purged, before);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+}
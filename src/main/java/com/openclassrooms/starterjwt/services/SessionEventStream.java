@@ -0,0 +1,147 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bus en mémoire des changements de session. Chaque abonné reçoit ses évènements
+ * dans une file bornée : aucun thread ne lui est dédié, et un abonné trop lent est
+ * déconnecté plutôt que de retenir les autres (il reprend avec Last-Event-ID).
+ * Les derniers évènements sont conservés pour la reprise après reconnexion.
+ */
+@Slf4j
+@Service
+public class SessionEventStream {
+
+    private final SessionViewService sessionViewService;
+    private final int replaySize;
+    private final int subscriberBufferSize;
+    private final Duration heartbeatInterval;
+
+    private final Deque<SessionStreamEvent> replay = new ArrayDeque<>();
+    private final Set<Sinks.Many<SessionStreamEvent>> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Démarre à l'horloge : un identifiant d'avant redémarrage est toujours plus ancien que le tampon.
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    public SessionEventStream(SessionViewService sessionViewService,
+                              @Value("${oc.app.sessionStream.replaySize}") int replaySize,
+                              @Value("${oc.app.sessionStream.subscriberBufferSize}") int subscriberBufferSize,
+                              @Value("${oc.app.sessionStream.heartbeatSeconds}") long heartbeatSeconds) {
+        this.sessionViewService = sessionViewService;
+        this.replaySize = replaySize;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+    }
+
+    /**
+     * Relit la session validée et diffuse le delta. La lecture passe par la connexion
+     * de l'écriture, encore liée au thread après le commit : une nouvelle transaction
+     * en demanderait une seconde, et sous charge toutes les connexions du pool
+     * attendraient chacune la leur.
+     */
+    @TransactionalEventListener
+    public void onSessionChanged(SessionChangedEvent event) {
+        SessionDto session;
+        String type = event.type().name().toLowerCase(Locale.ROOT);
+
+        if (event.type() == SessionChangedEvent.Type.DELETED) {
+            session = deleted(event.sessionId());
+        } else {
+            try {
+                session = this.sessionViewService.getById(event.sessionId());
+            } catch (NotFoundException e) {
+                // Supprimée entre-temps : l'évènement de suppression suivra.
+                return;
+            }
+        }
+        publish(type, session);
+    }
+
+    /**
+     * Flux d'un abonné : les évènements postérieurs à {@code lastEventId} encore en mémoire,
+     * puis les évènements en direct. Un évènement {@code reset} remplace la reprise
+     * lorsque des évènements ont été perdus.
+     */
+    public Flux<SessionStreamEvent> subscribe(Long lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<SessionStreamEvent> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<SessionStreamEvent>get(this.subscriberBufferSize).get());
+            List<SessionStreamEvent> backlog;
+
+            synchronized (this) {
+                backlog = backlog(lastEventId);
+                this.subscribers.add(sink);
+            }
+
+            return Flux.concat(Flux.fromIterable(backlog), sink.asFlux())
+                    .doFinally(signal -> this.subscribers.remove(sink));
+        });
+    }
+
+    public Duration getHeartbeatInterval() {
+        return this.heartbeatInterval;
+    }
+
+    public int subscriberCount() {
+        return this.subscribers.size();
+    }
+
+    synchronized void publish(String type, SessionDto session) {
+        SessionStreamEvent event = new SessionStreamEvent(++this.lastId, type, session);
+
+        this.replay.addLast(event);
+        if (this.replay.size() > this.replaySize) {
+            this.replay.removeFirst();
+        }
+
+        for (Sinks.Many<SessionStreamEvent> sink : this.subscribers) {
+            if (sink.tryEmitNext(event).isFailure()) {
+                log.debug("Slow session stream subscriber disconnected at event {}", event.id());
+                this.subscribers.remove(sink);
+                sink.tryEmitComplete();
+            }
+        }
+    }
+
+    private List<SessionStreamEvent> backlog(Long lastEventId) {
+        if (lastEventId == null || lastEventId >= this.lastId) {
+            return List.of();
+        }
+
+        long firstRetained = this.replay.isEmpty() ? this.lastId + 1 : this.replay.getFirst().id();
+        if (lastEventId < firstRetained - 1) {
+            return List.of(new SessionStreamEvent(this.lastId, SessionStreamEvent.RESET, null));
+        }
+
+        List<SessionStreamEvent> backlog = new ArrayList<>();
+        for (SessionStreamEvent event : this.replay) {
+            if (event.id() > lastEventId) {
+                backlog.add(event);
+            }
+        }
+        return backlog;
+    }
+
+    private static SessionDto deleted(Long sessionId) {
+        SessionDto session = new SessionDto();
+        session.setId(sessionId);
+        return session;
+    }
+}
@@ -0,0 +1,162 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.repository.SessionExportRepository;
+import com.openclassrooms.starterjwt.repository.SessionExportRepository.AttendanceRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Export du catalogue écrit au fil du curseur : seule la session en cours
+ * (et ses participants) est gardée en mémoire. La première ligne est envoyée
+ * dès qu'elle est lue, le reste part au rythme du tampon de la réponse.
+ */
+@Service
+public class SessionExportService {
+
+    private static final String CSV_HEADER = "session_id,name,date,teacher_id,description,user_id\n";
+
+    private final SessionExportRepository sessionExportRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SessionExportService(SessionExportRepository sessionExportRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.sessionExportRepository = sessionExportRepository;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Une session par ligne, au format de {@code GET /api/session}.
+     */
+    public void writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Les valeurs racine sont séparées par le saut de ligne, pas par l'espace par défaut.
+        generator.setRootValueSeparator(null);
+        NdjsonSessionWriter writer = new NdjsonSessionWriter(generator);
+
+        try {
+            this.readOnlyTransaction.executeWithoutResult(status ->
+                    this.sessionExportRepository.forEachAttendance(writer::accept));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.close();
+    }
+
+    /**
+     * Une ligne par participation ; {@code user_id} est vide pour une session sans participant.
+     */
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.flush();
+
+        try {
+            this.readOnlyTransaction.executeWithoutResult(status ->
+                    this.sessionExportRepository.forEachAttendance(row -> writeCsvRow(writer, row)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, AttendanceRow row) {
+        try {
+            writer.write(String.valueOf(row.sessionId()));
+            writer.write(',');
+            writer.write(csv(row.name()));
+            writer.write(',');
+            writer.write(row.date() == null ? "" : DateTimeFormatter.ISO_INSTANT.format(row.date().toInstant()));
+            writer.write(',');
+            writer.write(String.valueOf(row.teacherId()));
+            writer.write(',');
+            writer.write(csv(row.description()));
+            writer.write(',');
+            writer.write(row.userId() == null ? "" : String.valueOf(row.userId()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Regroupe les lignes consécutives d'une même session en un SessionDto.
+     */
+    private final class NdjsonSessionWriter {
+
+        private final JsonGenerator generator;
+        private SessionDto current;
+        private boolean flushed;
+
+        private NdjsonSessionWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void accept(AttendanceRow row) {
+            if (this.current == null || !Objects.equals(this.current.getId(), row.sessionId())) {
+                writeCurrent();
+                this.current = new SessionDto(row.sessionId(), row.name(), row.date(), row.teacherId(),
+                        row.description(), new ArrayList<>(), row.createdAt(), row.updatedAt(), row.capacity(), row.waitlist(),
+                        row.duration());
+            }
+            if (row.userId() != null) {
+                this.current.getUsers().add(row.userId());
+            }
+        }
+
+        void finish() {
+            writeCurrent();
+        }
+
+        private void writeCurrent() {
+            if (this.current == null) {
+                return;
+            }
+            try {
+                ndjsonWriter.writeValue(this.generator, this.current);
+                this.generator.writeRaw('\n');
+                if (!this.flushed) {
+                    this.generator.flush();
+                    this.flushed = true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.current = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
+import com.openclassrooms.starterjwt.repository.SessionPartitionRepository;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionViewRepository;
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static com.openclassrooms.starterjwt.repository.SessionPartitionRepository.TABLES;
+
+/**
+ * Maintenance des partitions mensuelles : création des mois à venir,
+ * suppression instantanée des mois révolus.
+ */
+@Slf4j
+@Service
+@Profile("partitioned")
+public class SessionPartitionService {
+
+    private final SessionPartitionRepository sessionPartitionRepository;
+    private final SessionRepository sessionRepository;
+    private final SessionViewRepository sessionViewRepository;
+    private final SessionChangeRepository sessionChangeRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final ScheduleIndex scheduleIndex;
+    private final int monthsAhead;
+
+    public SessionPartitionService(SessionPartitionRepository sessionPartitionRepository,
+                                   SessionRepository sessionRepository,
+                                   SessionViewRepository sessionViewRepository,
+                                   SessionChangeRepository sessionChangeRepository,
+                                   WaitlistRepository waitlistRepository,
+                                   SeatHoldRepository seatHoldRepository,
+                                   ScheduleIndex scheduleIndex,
+                                   @Value("${oc.app.partitioning.monthsAhead}") int monthsAhead) {
+        this.sessionPartitionRepository = sessionPartitionRepository;
+        this.sessionRepository = sessionRepository;
+        this.sessionViewRepository = sessionViewRepository;
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Garantit une partition par mois jusqu'à {@code monthsAhead} mois après le mois courant,
+     * pour que pmax reste vide et que son découpage soit immédiat.
+     */
+    @Scheduled(cron = "${oc.app.partitioning.cron}")
+    public void ensureFuturePartitions() {
+        YearMonth last = YearMonth.now().plusMonths(this.monthsAhead);
+
+        for (String table : TABLES) {
+            List<YearMonth> months = this.sessionPartitionRepository.findMonths(table);
+            YearMonth next = months.isEmpty() ? YearMonth.now() : months.get(months.size() - 1).plusMonths(1);
+
+            for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+                this.sessionPartitionRepository.addMonth(table, month);
+            }
+        }
+    }
+
+    /**
+     * Supprime les sessions (et leurs participations) antérieures au mois donné
+     * en retirant leurs partitions, puis les lignes correspondantes de session_view ;
+     * chaque session supprimée laisse une tombstone pour la synchronisation incrémentale.
+     * Les tables sans clé étrangère vers sessions (liste d'attente, places retenues)
+     * et l'index des créneaux sont nettoyés ici.
+     *
+     * @return le nombre de sessions supprimées
+     */
+    public int dropBefore(YearMonth cutoff) {
+        Date before = Date.from(cutoff.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        List<Long> ids = this.sessionRepository.findIdsByDateBefore(before);
+
+        for (String table : TABLES) {
+            for (YearMonth month : this.sessionPartitionRepository.findMonths(table)) {
+                if (month.isBefore(cutoff)) {
+                    this.sessionPartitionRepository.dropMonth(table, month);
+                }
+            }
+        }
+
+        this.sessionViewRepository.deleteAllById(ids);
+        this.sessionChangeRepository.recordDeletions(ids, LocalDateTime.now());
+        ids.forEach(this.waitlistRepository::removeBySessionId);
+        ids.forEach(this.seatHoldRepository::removeBySessionId);
+        ids.forEach(this.scheduleIndex::remove);
+        log.info("Dropped session partitions before {}: {} sessions removed", cutoff, ids.size());
+        return ids.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionOccurrenceDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.OccurrenceKey;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesExceptionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Séries de sessions récurrentes. Une occurrence n'existe en base qu'une fois
+ * matérialisée, à la première inscription ou modification : lister une période
+ * lit les sessions de la période, les séries actives et les clés des occurrences
+ * déjà matérialisées, quel que soit le nombre d'occurrences calculées.
+ *
+ * <p>Supprimer une occurrence matérialisée l'annule (session_series_exceptions) :
+ * elle n'est plus calculée, ni matérialisée à nouveau.
+ */
+@Service
+public class SessionSeriesService {
+
+    static final int MAX_CALENDAR_DAYS = 366;
+
+    private final SessionSeriesRepository sessionSeriesRepository;
+    private final SessionSeriesExceptionRepository sessionSeriesExceptionRepository;
+    private final SessionRepository sessionRepository;
+    private final SessionService sessionService;
+    private final TeacherService teacherService;
+
+    public SessionSeriesService(SessionSeriesRepository sessionSeriesRepository,
+                                SessionSeriesExceptionRepository sessionSeriesExceptionRepository,
+                                SessionRepository sessionRepository,
+                                SessionService sessionService,
+                                TeacherService teacherService) {
+        this.sessionSeriesRepository = sessionSeriesRepository;
+        this.sessionSeriesExceptionRepository = sessionSeriesExceptionRepository;
+        this.sessionRepository = sessionRepository;
+        this.sessionService = sessionService;
+        this.teacherService = teacherService;
+    }
+
+    @Transactional
+    public SessionSeries create(SessionSeries series, Long teacherId) {
+        RecurrenceRule rule = RecurrenceRule.parse(series.getRecurrence());
+        if (!rule.hasOccurrence(series.getDate())) {
+            throw new BadRequestException("Recurrence ends before the first occurrence");
+        }
+        series.setTeacher(this.teacherService.findById(teacherId));
+        if (series.getDuration() == null) {
+            series.setDuration(Session.DEFAULT_DURATION);
+        }
+        series.setEndsAt(rule.last(series.getDate()));
+        return this.sessionSeriesRepository.save(series);
+    }
+
+    @Transactional(readOnly = true)
+    public SessionSeries findById(Long id) {
+        return this.sessionSeriesRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+    }
+
+    /**
+     * Sessions et occurrences qui commencent dans {@code [from, to)}, par date : les
+     * occurrences non matérialisées ont un id nul.
+     */
+    @Transactional(readOnly = true)
+    public List<SessionOccurrenceDto> findOccurrences(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from) || ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_DAYS) {
+            throw new BadRequestException("Calendar range must be between 1 and " + MAX_CALENDAR_DAYS + " days");
+        }
+        Date start = toDate(from);
+        Date end = toDate(to);
+
+        List<SessionOccurrenceDto> occurrences = new ArrayList<>();
+        for (Session session : this.sessionRepository.findAllWithRelationsByDateBetween(start, end)) {
+            occurrences.add(toOccurrence(session));
+        }
+
+        List<SessionSeries> series = this.sessionSeriesRepository.findActiveBetween(start, end);
+        if (!series.isEmpty()) {
+            List<Long> seriesIds = series.stream().map(SessionSeries::getId).toList();
+            Set<String> materialized = new HashSet<>();
+            for (OccurrenceKey key : this.sessionRepository.findOccurrenceKeys(seriesIds, start, end)) {
+                materialized.add(key(key.seriesId(), key.occurrenceStart()));
+            }
+            for (OccurrenceKey key : this.sessionSeriesExceptionRepository.findCancelled(seriesIds, start, end)) {
+                materialized.add(key(key.seriesId(), key.occurrenceStart()));
+            }
+            for (SessionSeries s : series) {
+                for (Date occurrence : RecurrenceRule.parse(s.getRecurrence()).occurrences(s.getDate(), start, end)) {
+                    if (!materialized.contains(key(s.getId(), occurrence))) {
+                        occurrences.add(toOccurrence(s, occurrence));
+                    }
+                }
+            }
+        }
+
+        occurrences.sort(Comparator.comparing(SessionOccurrenceDto::getDate));
+        return occurrences;
+    }
+
+    /**
+     * Session de l'occurrence, créée au premier appel. Le verrou de la série
+     * sérialise les matérialisations concurrentes : une seule ligne par occurrence.
+     * Une occurrence annulée n'existe plus (404).
+     */
+    @Transactional
+    public Session materialize(Long seriesId, Date occurrence) {
+        SessionSeries series = this.sessionSeriesRepository.findByIdForUpdate(seriesId)
+                .orElseThrow(NotFoundException::new);
+        if (!RecurrenceRule.parse(series.getRecurrence()).isOccurrence(series.getDate(), occurrence)
+                || this.sessionSeriesExceptionRepository.isCancelled(seriesId, occurrence)) {
+            throw new NotFoundException();
+        }
+
+        return this.sessionRepository.findBySeriesIdAndOccurrenceStart(seriesId, occurrence)
+                .orElseGet(() -> this.sessionService.create(Session.builder()
+                        .name(series.getName())
+                        .date(occurrence)
+                        .description(series.getDescription())
+                        .teacher(series.getTeacher())
+                        .users(new ArrayList<>())
+                        .capacity(series.getCapacity())
+                        .duration(series.getDuration())
+                        .seriesId(seriesId)
+                        .occurrenceStart(occurrence)
+                        .build()));
+    }
+
+    @Transactional
+    public Session participate(Long seriesId, Date occurrence, Long userId) {
+        Session session = materialize(seriesId, occurrence);
+        this.sessionService.participate(session.getId(), userId);
+        return session;
+    }
+
+    /**
+     * Modifie cette occurrence seule ; la série et les autres occurrences restent inchangées.
+     */
+    @Transactional
+    public Session updateOccurrence(Long seriesId, Date occurrence, Session incoming, SessionDto dto) {
+        Session session = materialize(seriesId, occurrence);
+        return this.sessionService.update(session.getId(), incoming, dto);
+    }
+
+    private static SessionOccurrenceDto toOccurrence(Session session) {
+        return new SessionOccurrenceDto(
+                session.getId(),
+                session.getSeriesId(),
+                session.getOccurrenceStart() == null ? null : session.getOccurrenceStart().getTime(),
+                session.getName(),
+                session.getDate(),
+                session.getTeacher().getId(),
+                session.getDescription(),
+                session.getDuration(),
+                session.getCapacity(),
+                session.getUsers().stream().map(User::getId).toList());
+    }
+
+    private static SessionOccurrenceDto toOccurrence(SessionSeries series, Date occurrence) {
+        return new SessionOccurrenceDto(
+                null,
+                series.getId(),
+                occurrence.getTime(),
+                series.getName(),
+                occurrence,
+                series.getTeacher().getId(),
+                series.getDescription(),
+                series.getDuration(),
+                series.getCapacity(),
+                List.of());
+    }
+
+    private static String key(Long seriesId, Date occurrence) {
+        return seriesId + ":" + occurrence.getTime();
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,18 +1,29 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.WaitlistPositionDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesExceptionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
+import com.openclassrooms.starterjwt.services.SessionChangedEvent.Type;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class SessionService {
@@ -20,72 +31,175 @@ public class SessionService {
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final TeacherService teacherService;
+    private final WaitlistRepository waitlistRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final SessionSeriesExceptionRepository sessionSeriesExceptionRepository;
+    private final ScheduleIndex scheduleIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SessionService(SessionRepository sessionRepository,
                           UserRepository userRepository,
-                          TeacherService teacherService) {
+                          TeacherService teacherService,
+                          WaitlistRepository waitlistRepository,
+                          SeatHoldRepository seatHoldRepository,
+                          SessionSeriesExceptionRepository sessionSeriesExceptionRepository,
+                          ScheduleIndex scheduleIndex,
+                          ApplicationEventPublisher eventPublisher) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
         this.teacherService = teacherService;
+        this.waitlistRepository = waitlistRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.sessionSeriesExceptionRepository = sessionSeriesExceptionRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public Session create(Session session) {
-        return this.sessionRepository.save(session);
+        checkCapacity(session, 0);
+        Session saved = this.sessionRepository.save(session);
+        this.scheduleIndex.book(saved);
+        publish(Type.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Session update(Long id, Session incoming) {
+        int held = lockSeatsAndCountHolds(id);
         Session existing = this.sessionRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
         existing.setName(incoming.getName());
         existing.setDate(incoming.getDate());
         existing.setDescription(incoming.getDescription());
+        existing.setCapacity(incoming.getCapacity());
+        if (incoming.getDuration() != null) {
+            existing.setDuration(incoming.getDuration());
+        }
 
         if (incoming.getTeacher() != null) {
             existing.setTeacher(incoming.getTeacher());
         }
         if (incoming.getUsers() != null) {
             existing.setUsers(incoming.getUsers());
+            checkCapacity(existing, held);
+            this.sessionRepository.updateSeatsTaken(id, incoming.getUsers().size() + held);
+            removeFromWaitlist(existing);
         }
+        promoteWaitlist(existing);
+        this.scheduleIndex.book(existing);
+        touch(existing);
 
-        return this.sessionRepository.save(existing);
+        Session saved = this.sessionRepository.save(existing);
+        publish(Type.UPDATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Session create(Session session, SessionDto dto) {
         applyRelations(session, dto, null);
-        return this.sessionRepository.save(session);
+        checkCapacity(session, 0);
+        Session saved = this.sessionRepository.save(session);
+        this.scheduleIndex.book(saved);
+        publish(Type.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Session update(Long id, Session incoming, SessionDto dto) {
+        int held = lockSeatsAndCountHolds(id);
         Session existing = this.sessionRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
         existing.setName(incoming.getName());
         existing.setDate(incoming.getDate());
         existing.setDescription(incoming.getDescription());
+        existing.setCapacity(incoming.getCapacity());
+        if (incoming.getDuration() != null) {
+            existing.setDuration(incoming.getDuration());
+        }
 
         applyRelations(existing, dto, existing);
+        if (dto.getUsers() != null) {
+            checkCapacity(existing, held);
+            this.sessionRepository.updateSeatsTaken(id, existing.getUsers().size() + held);
+            removeFromWaitlist(existing);
+        }
+        promoteWaitlist(existing);
+        this.scheduleIndex.book(existing);
+        touch(existing);
 
-        return this.sessionRepository.save(existing);
-    }
-
-    public List<Session> findAll() {
-        return this.sessionRepository.findAll();
-    }
-
-    public Session getById(Long id) {
-        return this.sessionRepository.findById(id)
-                .orElseThrow(NotFoundException::new);
+        Session saved = this.sessionRepository.save(existing);
+        publish(Type.UPDATED, saved);
+        return saved;
     }
 
+    @Transactional
     public void delete(Long id) {
         Session session = this.sessionRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
         this.sessionRepository.delete(session);
+        this.waitlistRepository.removeBySessionId(id);
+        this.seatHoldRepository.removeBySessionId(id);
+        this.scheduleIndex.remove(id);
+        if (session.getSeriesId() != null) {
+            this.sessionSeriesExceptionRepository.cancel(session.getSeriesId(), session.getOccurrenceStart());
+        }
+        publish(Type.DELETED, session);
     }
 
+    /**
+     * La place est prise avant toute lecture : la transaction détient alors le
+     * verrou de la ligne de la session, et lit les participants validés par les
+     * réservations concurrentes. Un échec plus loin annule la réservation.
+     */
+    @Transactional
     public void participate(Long id, Long userId) {
+        if (this.sessionRepository.takeSeat(id) == 0) {
+            throw this.sessionRepository.existsById(id)
+                    ? new ConflictException("Session is full")
+                    : new NotFoundException();
+        }
+        addParticipant(id, userId);
+    }
+
+    /**
+     * Inscription sur une place déjà comptée dans {@code seats_taken}, retenue par
+     * {@link SeatHoldService}.
+     */
+    @Transactional
+    public void confirmHeldSeat(Long id, Long userId) {
+        if (this.sessionRepository.lockSeats(id) == 0) {
+            throw new NotFoundException();
+        }
+        addParticipant(id, userId);
+    }
+
+    /**
+     * Rend une place retenue et non confirmée : comme une désinscription, elle
+     * revient au premier de la liste d'attente.
+     */
+    @Transactional
+    public void releaseHeldSeat(Long id) {
+        if (this.sessionRepository.releaseSeat(id) == 0) {
+            return;
+        }
+
+        Session session = this.sessionRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+        int participants = session.getUsers().size();
+        promoteWaitlist(session);
+        if (session.getUsers().size() != participants) {
+            this.scheduleIndex.update(session);
+            touch(session);
+            this.sessionRepository.save(session);
+            publish(Type.PARTICIPATION, session);
+        }
+    }
+
+    private void addParticipant(Long id, Long userId) {
         Session session = this.sessionRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
@@ -99,10 +213,22 @@ public class SessionService {
         }
 
         session.getUsers().add(user);
+        this.scheduleIndex.bookUser(session, userId);
+        this.waitlistRepository.remove(id, userId);
+        touch(session);
         this.sessionRepository.save(session);
+        publish(Type.PARTICIPATION, session);
     }
 
+    /**
+     * La place libérée revient à la tête de la liste d'attente, dans la même transaction
+     * et sous le même verrou : deux désinscriptions simultanées promeuvent deux
+     * utilisateurs distincts, dans l'ordre d'arrivée.
+     */
+    @Transactional
     public void noLongerParticipate(Long id, Long userId) {
+        this.sessionRepository.releaseSeat(id);
+
         Session session = this.sessionRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
 
@@ -119,8 +245,161 @@ public class SessionService {
                                 .toList()
                 )
         );
+        promoteWaitlist(session);
+        this.scheduleIndex.update(session);
+        touch(session);
+
+        this.sessionRepository.save(session);
+        publish(Type.PARTICIPATION, session);
+    }
+
+    /**
+     * Inscrit l'utilisateur si une place est libre, sinon l'ajoute en fin de liste
+     * d'attente : il sera inscrit sans autre requête dès qu'une place se libère.
+     */
+    @Transactional
+    public WaitlistPositionDto joinWaitlist(Long id, Long userId) {
+        if (this.sessionRepository.lockSeats(id) == 0) {
+            throw new NotFoundException();
+        }
+
+        Session session = this.sessionRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+
+        User user = this.userRepository.findById(userId)
+                .orElseThrow(NotFoundException::new);
+
+        if (participates(session, userId)) {
+            throw new BadRequestException();
+        }
+        this.scheduleIndex.checkUser(session, userId);
+
+        if (this.waitlistRepository.findHead(id).isEmpty() && this.sessionRepository.takeSeat(id) == 1) {
+            session.getUsers().add(user);
+            this.scheduleIndex.bookUser(session, userId);
+            touch(session);
+            this.sessionRepository.save(session);
+            publish(Type.PARTICIPATION, session);
+            return new WaitlistPositionDto(id, userId, true, null);
+        }
 
+        try {
+            this.waitlistRepository.add(id, userId, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("Already on the waitlist");
+        }
+        touch(session);
         this.sessionRepository.save(session);
+        publish(Type.WAITLIST, session);
+        return new WaitlistPositionDto(id, userId, false, this.waitlistRepository.findPosition(id, userId));
+    }
+
+    @Transactional
+    public void leaveWaitlist(Long id, Long userId) {
+        if (this.sessionRepository.lockSeats(id) == 0) {
+            throw new NotFoundException();
+        }
+        if (this.waitlistRepository.remove(id, userId) == 0) {
+            throw new BadRequestException();
+        }
+
+        Session session = this.sessionRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+        touch(session);
+        this.sessionRepository.save(session);
+        publish(Type.WAITLIST, session);
+    }
+
+    /**
+     * Inscrit, en attente (rang à partir de 1), ou 404 si l'utilisateur n'est ni l'un ni l'autre.
+     */
+    @Transactional(readOnly = true)
+    public WaitlistPositionDto getWaitlistPosition(Long id, Long userId) {
+        int position = this.waitlistRepository.findPosition(id, userId);
+        if (position > 0) {
+            return new WaitlistPositionDto(id, userId, false, position);
+        }
+
+        Session session = this.sessionRepository.findById(id)
+                .orElseThrow(NotFoundException::new);
+        if (!participates(session, userId)) {
+            throw new NotFoundException();
+        }
+        return new WaitlistPositionDto(id, userId, true, null);
+    }
+
+    /**
+     * Inscrit les premiers de la liste d'attente tant qu'il reste des places.
+     * Un utilisateur inscrit entre-temps à une session du même créneau perd sa
+     * place dans la file : la vérification et l'inscription dans l'index se font
+     * en une fois ({@link ScheduleIndex#bookUser}). Appelé sous le verrou de la session.
+     */
+    private void promoteWaitlist(Session session) {
+        Optional<Long> head;
+        while ((head = this.waitlistRepository.findHead(session.getId())).isPresent()) {
+            Long userId = head.get();
+            if (!participates(session, userId)) {
+                if (this.sessionRepository.takeSeat(session.getId()) == 0) {
+                    return;
+                }
+                session.getUsers().add(this.userRepository.findById(userId).orElseThrow(NotFoundException::new));
+                try {
+                    this.scheduleIndex.bookUser(session, userId);
+                } catch (ConflictException e) {
+                    session.getUsers().removeIf(u -> u.getId().equals(userId));
+                    this.sessionRepository.releaseSeat(session.getId());
+                }
+            }
+            this.waitlistRepository.remove(session.getId(), userId);
+        }
+    }
+
+    // Les participants fournis en bloc n'ont plus à attendre.
+    private void removeFromWaitlist(Session session) {
+        session.getUsers().forEach(user -> this.waitlistRepository.remove(session.getId(), user.getId()));
+    }
+
+    private static boolean participates(Session session, Long userId) {
+        return session.getUsers().stream().anyMatch(u -> u.getId().equals(userId));
+    }
+
+    /**
+     * Une liste de participants fournie en bloc (création, modification) ne peut
+     * pas dépasser, avec les places retenues, la capacité ; baisser la capacité sous
+     * le nombre d'inscrits reste possible, seules les nouvelles réservations sont
+     * alors refusées.
+     */
+    private void checkCapacity(Session session, int held) {
+        if (session.getCapacity() != null && session.getUsers() != null
+                && session.getUsers().size() + held > session.getCapacity()) {
+            throw new BadRequestException("Session capacity exceeded");
+        }
+    }
+
+    /**
+     * Verrou de la session avant toute lecture : aucune place ne peut être retenue
+     * ou rendue d'ici la fin de la transaction, et le compte lu est à jour.
+     */
+    private int lockSeatsAndCountHolds(Long id) {
+        if (this.sessionRepository.lockSeats(id) == 0) {
+            throw new NotFoundException();
+        }
+        return this.seatHoldRepository.countBySessionId(id);
+    }
+
+    /**
+     * Un changement limité aux participants ne rend pas l'entité sale :
+     * avancer updatedAt force l'UPDATE, et donc la mise à jour de session_view.
+     */
+    private void touch(Session session) {
+        session.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Diffusé aux abonnés du flux SSE une fois la transaction validée.
+     */
+    private void publish(Type type, Session session) {
+        this.eventPublisher.publishEvent(new SessionChangedEvent(type, session.getId()));
     }
 
     private void applyRelations(Session target, SessionDto dto, Session existing) {
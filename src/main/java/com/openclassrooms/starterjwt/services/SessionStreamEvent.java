@@ -0,0 +1,13 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+
+/**
+ * Delta diffusé aux abonnés du flux SSE. Pour une suppression, {@code session}
+ * ne porte que l'identifiant. Le type {@code RESET} demande au client de recharger
+ * le catalogue : les évènements manqués ne sont plus en mémoire.
+ */
+public record SessionStreamEvent(long id, String type, SessionDto session) {
+
+    public static final String RESET = "reset";
+}
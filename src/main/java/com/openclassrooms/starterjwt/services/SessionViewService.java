@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lectures du catalogue servies depuis session_view, et reconstruction
+ * complète de cette vue à partir des tables sessions / teachers / participate.
+ */
+@Slf4j
+@Service
+public class SessionViewService {
+
+    private final SessionViewRepository sessionViewRepository;
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight singleFlight;
+    private final int rebuildChunkSize;
+    private final int rebuildThreads;
+
+    public SessionViewService(SessionViewRepository sessionViewRepository,
+                              SessionRepository sessionRepository,
+                              PlatformTransactionManager transactionManager,
+                              SingleFlight singleFlight,
+                              @Value("${oc.app.sessionView.rebuildChunkSize}") int rebuildChunkSize,
+                              @Value("${oc.app.sessionView.rebuildThreads}") int rebuildThreads) {
+        this.sessionViewRepository = sessionViewRepository;
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.singleFlight = singleFlight;
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionDto> findAll() {
+        return this.sessionViewRepository.findAll();
+    }
+
+    /**
+     * Les lectures simultanées d'une même session partagent un seul select.
+     */
+    public SessionDto getById(Long id) {
+        return this.singleFlight.load("session", id, () -> this.sessionViewRepository.findById(id)
+                .orElseThrow(NotFoundException::new));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetDto<SessionDto> getByIds(List<Long> ids) {
+        List<Long> distinct = MultiGet.distinct(ids);
+        return MultiGet.ordered(distinct, this.sessionViewRepository.findAllById(distinct), SessionDto::getId);
+    }
+
+    /**
+     * ETag de la session, sans charger ni sérialiser la ligne.
+     */
+    @Transactional(readOnly = true)
+    public String getETag(Long id) {
+        return this.sessionViewRepository.findVersionById(id)
+                .map(version -> ETags.of("session", id, version))
+                .orElseThrow(NotFoundException::new);
+    }
+
+    @Transactional(readOnly = true)
+    public String getListETag() {
+        return ETags.ofList("session", this.sessionViewRepository.findListVersion());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionSummaryDto> findAllSummaries() {
+        return this.sessionViewRepository.findAllSummaries();
+    }
+
+    /**
+     * La vue est vide alors que des sessions existent (première mise en place).
+     */
+    @Transactional(readOnly = true)
+    public boolean needsRebuild() {
+        return this.sessionViewRepository.count() == 0 && this.sessionRepository.count() > 0;
+    }
+
+    /**
+     * Régénère la vue par lots de sessions traités en parallèle, chacun dans
+     * sa propre transaction. Les lignes sont remplacées sans vider la table :
+     * le catalogue reste lisible pendant la reconstruction.
+     *
+     * @return le nombre de sessions projetées
+     */
+    public int rebuild() {
+        List<Long> ids = this.sessionRepository.findAllIds();
+        ExecutorService executor = Executors.newFixedThreadPool(this.rebuildThreads);
+
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += this.rebuildChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + this.rebuildChunkSize, ids.size()));
+                chunks.add(executor.submit(() -> this.transactionTemplate.executeWithoutResult(status ->
+                        this.sessionViewRepository.saveAll(this.sessionRepository.findAllWithRelationsByIdIn(chunk)))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Session view rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Session view rebuild failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        int orphans = this.transactionTemplate.execute(status -> this.sessionViewRepository.deleteOrphans());
+        log.info("Session view rebuilt: {} sessions, {} orphan rows removed", ids.size(), orphans);
+        return ids.size();
+    }
+}
@@ -0,0 +1,100 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.configuration.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Regroupe les lectures simultanées d'une même entité : le premier appel charge
+ * (dans sa propre transaction readOnly), les suivants attendent et reçoivent le
+ * même résultat, ou la même exception.
+ *
+ * <p>Un appel fait dans une transaction déjà ouverte charge lui-même : l'entité
+ * doit appartenir à son contexte de persistance. Un utilisateur qui vient
+ * d'écrire charge lui-même aussi, pour relire sa propre écriture.
+ *
+ * <p>Métrique {@code singleflight.calls{name, outcome=leader|coalesced}}.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                        PlatformTransactionManager transactionManager) {
+        this.meterRegistry = meterRegistry;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String name, Object id, Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || hasRecentWrite()) {
+            return loader.get();
+        }
+
+        Key key = new Key(name, id);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = this.inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            counter(name, "coalesced").increment();
+            return (T) join(leader);
+        }
+
+        counter(name, "leader").increment();
+        T value;
+        try {
+            value = this.readOnlyTransaction.execute(status -> loader.get());
+        } catch (RuntimeException | Error e) {
+            this.inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        // Retiré avant d'être complété : un appel arrivé après le chargement relance une lecture.
+        this.inFlight.remove(key, call);
+        call.complete(value);
+        return value;
+    }
+
+    private boolean hasRecentWrite() {
+        ReadYourWritesTracker tracker = this.readYourWritesTracker.getIfAvailable();
+        return tracker != null && tracker.hasRecentWrite();
+    }
+
+    private Counter counter(String name, String outcome) {
+        return this.meterRegistry.counter("singleflight.calls", "name", name, "outcome", outcome);
+    }
+
+    private static Object join(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String name, Object id) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.repository.SparseFieldRepository;
+import com.openclassrooms.starterjwt.repository.SparseFieldRepository.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectures {@code ?fields=name,date} : seules les colonnes demandées sont lues et renvoyées.
+ */
+@Service
+public class SparseReadService {
+
+    private final SparseFieldRepository sparseFieldRepository;
+
+    public SparseReadService(SparseFieldRepository sparseFieldRepository) {
+        this.sparseFieldRepository = sparseFieldRepository;
+    }
+
+    /**
+     * Champs demandés, validés et dans l'ordre de la requête ; {@code id} est toujours renvoyé.
+     */
+    public static List<String> parse(Resource resource, String fields) {
+        List<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty() && !field.equals("id"))
+                .distinct()
+                .toList();
+
+        for (String field : selected) {
+            if (!resource.hasField(field)) {
+                throw new BadRequestException("Unknown field '" + field + "', expected one of " + resource.fieldNames());
+            }
+        }
+        return selected;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Resource resource, List<String> fields) {
+        return this.sparseFieldRepository.findAll(resource, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> findById(Resource resource, Long id, List<String> fields) {
+        return this.sparseFieldRepository.findById(resource, id, fields)
+                .orElseThrow(NotFoundException::new);
+    }
+}
@@ -1,9 +1,11 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -11,17 +13,38 @@ import java.util.List;
 public class TeacherService {
 
     private final TeacherRepository teacherRepository;
+    private final SingleFlight singleFlight;
 
-    public TeacherService(TeacherRepository teacherRepository) {
+    public TeacherService(TeacherRepository teacherRepository, SingleFlight singleFlight) {
         this.teacherRepository = teacherRepository;
+        this.singleFlight = singleFlight;
     }
 
+    @Transactional(readOnly = true)
     public List<Teacher> findAll() {
         return this.teacherRepository.findAll();
     }
 
     public Teacher findById(Long id) {
-        return this.teacherRepository.findById(id)
+        return this.singleFlight.load("teacher", id, () -> this.teacherRepository.findById(id)
+                .orElseThrow(NotFoundException::new));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetDto<Teacher> findAllById(List<Long> ids) {
+        List<Long> distinct = MultiGet.distinct(ids);
+        return MultiGet.ordered(distinct, this.teacherRepository.findAllById(distinct), Teacher::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public String getETag(Long id) {
+        return this.teacherRepository.findVersionById(id)
+                .map(version -> ETags.of("teacher", id, version))
                 .orElseThrow(NotFoundException::new);
     }
+
+    @Transactional(readOnly = true)
+    public String getListETag() {
+        return ETags.ofList("teacher", this.teacherRepository.findListVersion());
+    }
 }
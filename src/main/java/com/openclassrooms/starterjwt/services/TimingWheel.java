@@ -0,0 +1,122 @@
+package com.openclassrooms.starterjwt.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roue temporelle hiérarchique : programmer une échéance coûte O(1), et chaque tick
+ * ne parcourt que l'emplacement courant, quel que soit le nombre d'échéances en
+ * attente. Le niveau {@code l} couvre {@code slots^(l+1)} ticks ; quand le niveau
+ * inférieur a fait un tour, l'emplacement suivant du niveau {@code l} est redistribué
+ * vers le bas. Une échéance au-delà du dernier niveau y attend et est redistribuée
+ * autant de fois que nécessaire.
+ *
+ * <p>Une échéance n'expire jamais avant son heure, au plus un tick après. Pas
+ * d'annulation : l'appelant ignore les échéances devenues sans objet.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final long startMs;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[][] levels;
+    private final List<T> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param slots  emplacements par niveau, puissance de 2
+     * @param nowMs  origine des ticks
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int slots, int levels, long nowMs) {
+        if (tickMs <= 0 || slots < 2 || Integer.bitCount(slots) != 1 || levels < 1
+                || Integer.numberOfTrailingZeros(slots) * levels > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMs = tickMs;
+        this.startMs = nowMs;
+        this.bits = Integer.numberOfTrailingZeros(slots);
+        this.mask = slots - 1;
+        this.levels = new ArrayDeque[levels][slots];
+    }
+
+    public synchronized void schedule(T value, long deadlineMs) {
+        // Arrondi au tick supérieur : jamais d'expiration anticipée.
+        long tick = Math.ceilDiv(deadlineMs - this.startMs, this.tickMs);
+        place(new Entry<>(value, tick));
+        this.size++;
+    }
+
+    /**
+     * Avance jusqu'à {@code nowMs} et retire les échéances atteintes.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        long target = Math.floorDiv(nowMs - this.startMs, this.tickMs);
+        while (this.currentTick < target) {
+            this.currentTick++;
+            for (int level = 1; level < this.levels.length
+                    && (this.currentTick & ((1L << (this.bits * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            for (Entry<T> entry : drain(0, this.currentTick)) {
+                place(entry);
+            }
+        }
+        // Échéances atteintes : programmées dans le passé, redistribuées ou tirées de l'emplacement courant.
+        expired.addAll(this.due);
+        this.due.clear();
+        this.size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    private void cascade(int level) {
+        drain(level, this.currentTick >> (this.bits * level)).forEach(this::place);
+    }
+
+    private List<Entry<T>> drain(int level, long position) {
+        ArrayDeque<Entry<T>> slot = this.levels[level][(int) (position & this.mask)];
+        if (slot == null || slot.isEmpty()) {
+            return List.of();
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        return entries;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick() - this.currentTick;
+        if (delta <= 0) {
+            this.due.add(entry.value());
+            return;
+        }
+
+        int level = 0;
+        while (level < this.levels.length - 1 && delta >= 1L << (this.bits * (level + 1))) {
+            level++;
+        }
+        long tick = entry.tick();
+        if (delta >= 1L << (this.bits * this.levels.length)) {
+            // Au-delà de la portée : dernier emplacement atteignable, puis redistribution.
+            tick = this.currentTick + (1L << (this.bits * this.levels.length)) - 1;
+        }
+
+        int index = (int) ((tick >> (this.bits * level)) & this.mask);
+        ArrayDeque<Entry<T>> slot = this.levels[level][index];
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            this.levels[level][index] = slot;
+        }
+        slot.add(entry);
+    }
+
+    private record Entry<T>(T value, long tick) {
+    }
+}
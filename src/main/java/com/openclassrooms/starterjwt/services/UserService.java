@@ -1,31 +1,51 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.MultiGetDto;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.exception.UnauthorizedException;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final SingleFlight singleFlight;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, SingleFlight singleFlight) {
         this.userRepository = userRepository;
+        this.singleFlight = singleFlight;
     }
 
     public User findById(Long id) {
-        return this.userRepository.findById(id)
+        return this.singleFlight.load("user", id, () -> this.userRepository.findById(id)
+                .orElseThrow(NotFoundException::new));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetDto<User> findAllById(List<Long> ids) {
+        List<Long> distinct = MultiGet.distinct(ids);
+        return MultiGet.ordered(distinct, this.userRepository.findAllById(distinct), User::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public String getETag(Long id) {
+        return this.userRepository.findVersionById(id)
+                .map(version -> ETags.of("user", id, version))
                 .orElseThrow(NotFoundException::new);
     }
 
+    @Transactional
     public void delete(Long id) {
         User user = findById(id);
         this.userRepository.delete(user);
     }
 
+    @Transactional
     public void deleteIfOwner(Long id, String requesterEmail) {
         User user = findById(id);
 
@@ -36,14 +56,17 @@ public class UserService {
         this.userRepository.delete(user);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return this.userRepository.existsByEmail(email);
     }
 
+    @Transactional
     public User save(User user) {
         return this.userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return this.userRepository.findByEmail(email)
                 .orElseThrow(NotFoundException::new);
@@ -0,0 +1,16 @@
+-- Liste d'attente des sessions complètes, dans l'ordre d'arrivée (id croissant).
+-- Pas de clé étrangère vers sessions, partitionnable : les lignes d'une session
+-- supprimée le sont par SessionService.
+CREATE TABLE waitlist (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    session_id BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_waitlist PRIMARY KEY (id),
+    CONSTRAINT uk_waitlist_session_user UNIQUE (session_id, user_id),
+    CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_waitlist_session_id ON waitlist (session_id, id);
+
+ALTER TABLE session_view ADD COLUMN waitlist_ids TEXT NULL;
@@ -0,0 +1,13 @@
+-- Places retenues le temps d'un paiement, comptées dans sessions.seats_taken.
+-- Relues au démarrage pour reprogrammer leur expiration. Pas de clé étrangère vers
+-- sessions, partitionnable : les lignes d'une session supprimée le sont par SessionService.
+CREATE TABLE seat_holds (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    session_id BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_seat_holds PRIMARY KEY (id),
+    CONSTRAINT uk_seat_holds_session_user UNIQUE (session_id, user_id),
+    CONSTRAINT fk_seat_holds_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
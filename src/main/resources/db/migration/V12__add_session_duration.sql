@@ -0,0 +1,7 @@
+-- Durée des sessions en minutes : une session occupe [date, date + duration),
+-- ce qui permet de refuser les créneaux qui se chevauchent (ScheduleIndex).
+ALTER TABLE sessions ADD COLUMN duration INT NOT NULL DEFAULT 60;
+
+ALTER TABLE session_view ADD COLUMN duration INT NULL;
+
+UPDATE session_view SET duration = 60;
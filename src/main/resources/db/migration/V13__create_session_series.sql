@@ -0,0 +1,26 @@
+-- Séries de sessions récurrentes : une ligne par série, dont les occurrences sont
+-- calculées à la lecture pour la période demandée. Une occurrence n'a de ligne dans
+-- sessions (series_id, occurrence_start) qu'une fois réservée ou modifiée.
+CREATE TABLE session_series (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(50)   NOT NULL,
+    description VARCHAR(2500) NOT NULL,
+    teacher_id  BIGINT        NOT NULL,
+    date        DATETIME(6)   NOT NULL,
+    duration    INT           NOT NULL,
+    capacity    INT           NULL,
+    recurrence  VARCHAR(255)  NOT NULL,
+    ends_at     DATETIME(6)   NULL,
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_session_series PRIMARY KEY (id),
+    CONSTRAINT fk_session_series_teacher FOREIGN KEY (teacher_id) REFERENCES teachers (id)
+);
+
+CREATE INDEX idx_session_series_date ON session_series (date, ends_at);
+
+-- Pas de clé étrangère : sessions peut être partitionnée (V5).
+ALTER TABLE sessions ADD COLUMN series_id BIGINT NULL;
+ALTER TABLE sessions ADD COLUMN occurrence_start DATETIME(6) NULL;
+
+CREATE INDEX idx_sessions_series_occurrence ON sessions (series_id, occurrence_start);
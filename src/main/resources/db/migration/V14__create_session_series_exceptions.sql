@@ -0,0 +1,9 @@
+-- Occurrences annulées d'une série : la suppression d'une occurrence matérialisée
+-- laisse ici une ligne, pour que le calendrier ne la recalcule pas.
+CREATE TABLE session_series_exceptions (
+    series_id        BIGINT      NOT NULL,
+    occurrence_start DATETIME(6) NOT NULL,
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_session_series_exceptions PRIMARY KEY (series_id, occurrence_start),
+    CONSTRAINT fk_session_series_exceptions_series FOREIGN KEY (series_id) REFERENCES session_series (id) ON DELETE CASCADE
+);
@@ -0,0 +1,41 @@
+-- Schéma initial, identique à celui généré jusqu'ici par ddl-auto.
+CREATE TABLE users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    email      VARCHAR(50)  NOT NULL,
+    last_name  VARCHAR(20)  NOT NULL,
+    first_name VARCHAR(20)  NOT NULL,
+    password   VARCHAR(120) NOT NULL,
+    admin      BIT(1)       NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE teachers (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    last_name  VARCHAR(20) NOT NULL,
+    first_name VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_teachers PRIMARY KEY (id)
+);
+
+CREATE TABLE sessions (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(50)   NOT NULL,
+    date        DATETIME(6)   NOT NULL,
+    description VARCHAR(2500) NOT NULL,
+    teacher_id  BIGINT        NOT NULL,
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_sessions PRIMARY KEY (id),
+    CONSTRAINT fk_sessions_teacher FOREIGN KEY (teacher_id) REFERENCES teachers (id)
+);
+
+CREATE TABLE participate (
+    session_id BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    CONSTRAINT fk_participate_session FOREIGN KEY (session_id) REFERENCES sessions (id),
+    CONSTRAINT fk_participate_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,10 @@
+-- Les bases créées par ddl-auto ont une description limitée à 255 caractères.
+ALTER TABLE sessions MODIFY description VARCHAR(2500) NOT NULL;
+
+-- Tri et filtre du catalogue par date, jointure vers l'enseignant.
+CREATE INDEX idx_sessions_date ON sessions (date);
+CREATE INDEX idx_sessions_teacher_id ON sessions (teacher_id);
+
+-- Une participation est unique ; l'index inverse sert les recherches par utilisateur.
+ALTER TABLE participate ADD CONSTRAINT pk_participate PRIMARY KEY (session_id, user_id);
+CREATE INDEX idx_participate_user_session ON participate (user_id, session_id);
@@ -0,0 +1,16 @@
+-- Données de référence (ancien sql/insert_user.sql), sans doublon sur une base déjà alimentée.
+INSERT INTO users(first_name, last_name, admin, email, password)
+SELECT 'Admin', 'Admin', true, 'yoga@studio.com', '$2a$10$.Hsa/ZjUVaHqi0tp9xieMeewrnZxrZ5pQRzddUXE/WjDu2ZThe6Iq'
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM users WHERE email = 'yoga@studio.com');
+
+-- Ajout de quelques professeurs de yoga
+INSERT INTO teachers(last_name, first_name)
+SELECT 'Bob', 'Marley'
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM teachers WHERE last_name = 'Bob' AND first_name = 'Marley');
+
+INSERT INTO teachers(last_name, first_name)
+SELECT 'Gyneco', 'Doc'
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM teachers WHERE last_name = 'Gyneco' AND first_name = 'Doc');
@@ -0,0 +1,18 @@
+-- Modèle de lecture dénormalisé du catalogue : une ligne par session,
+-- tenue à jour dans la transaction d'écriture (cf. SessionViewListener).
+CREATE TABLE session_view (
+    session_id         BIGINT        NOT NULL,
+    name               VARCHAR(50)   NOT NULL,
+    date               DATETIME(6)   NOT NULL,
+    description        VARCHAR(2500) NOT NULL,
+    teacher_id         BIGINT        NOT NULL,
+    teacher_first_name VARCHAR(20),
+    teacher_last_name  VARCHAR(20),
+    participant_count  INT           NOT NULL DEFAULT 0,
+    participant_ids    TEXT,
+    created_at         TIMESTAMP NULL,
+    updated_at         TIMESTAMP NULL,
+    CONSTRAINT pk_session_view PRIMARY KEY (session_id)
+);
+
+CREATE INDEX idx_session_view_date ON session_view (date);
@@ -0,0 +1,13 @@
+-- Synchronisation incrémentale (GET /api/session/changes) : fenêtres sur updated_at
+-- et journal des suppressions (tombstones).
+ALTER TABLE session_view MODIFY updated_at TIMESTAMP(6) NULL;
+
+CREATE INDEX idx_session_view_updated_at ON session_view (updated_at);
+
+CREATE TABLE session_deletions (
+    session_id BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_session_deletions PRIMARY KEY (session_id)
+);
+
+CREATE INDEX idx_session_deletions_deleted_at ON session_deletions (deleted_at);
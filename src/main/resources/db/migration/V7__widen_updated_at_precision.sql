@@ -0,0 +1,4 @@
+-- Les ETags dérivent de updated_at : à la seconde, deux modifications rapprochées
+-- produiraient le même ETag pour deux contenus différents.
+ALTER TABLE users MODIFY updated_at TIMESTAMP(6) NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE teachers MODIFY updated_at TIMESTAMP(6) NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,15 @@
+-- Réponses des POST rejoués avec un en-tête Idempotency-Key, par utilisateur et par clé.
+-- La ligne est insérée dans la transaction de l'écriture : une clé enregistrée
+-- correspond toujours à une écriture validée.
+CREATE TABLE idempotency_keys (
+    user_name       VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    CHAR(64)     NOT NULL,
+    status          INT          NOT NULL,
+    body            BLOB         NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (user_name, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
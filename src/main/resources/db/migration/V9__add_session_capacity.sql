@@ -0,0 +1,9 @@
+-- Places limitées par session (NULL : sans limite). seats_taken est le compteur
+-- dénormalisé des participants, incrémenté par une mise à jour conditionnelle :
+-- la réservation ne verrouille que la ligne de la session visée.
+ALTER TABLE sessions ADD COLUMN capacity INT NULL;
+ALTER TABLE sessions ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+
+UPDATE sessions SET seats_taken = (SELECT COUNT(*) FROM participate p WHERE p.session_id = sessions.id);
+
+ALTER TABLE session_view ADD COLUMN capacity INT NULL;
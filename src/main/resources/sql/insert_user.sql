@@ -1,8 +0,0 @@
-INSERT INTO users(first_name, last_name, admin, email, password) VALUES ('Admin', 'Admin', true, 'yoga@studio.com', '$2a$10$.Hsa/ZjUVaHqi0tp9xieMeewrnZxrZ5pQRzddUXE/WjDu2ZThe6Iq');
-
--- Ajout de quelques professeurs de yoga
-INSERT INTO teachers(last_name, first_name)
-VALUES ('Bob', 'Marley');
-
-INSERT INTO teachers(last_name, first_name)
-VALUES ('Gyneco', 'Doc');
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.dto.UserDto;
+import com.openclassrooms.starterjwt.payload.response.JwtResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeneratedJsonHttpMessageConverterTest {
+
+    private final MediaTypesConfig config = new MediaTypesConfig();
+
+    private final GeneratedJsonHttpMessageConverter converter =
+            config.generatedJsonHttpMessageConverter(config.jsonb());
+
+    // Réglages de Spring Boot : dates en ISO plutôt qu'en timestamps
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static SessionDto session(long id) {
+        return new SessionDto(id, "Yoga \"été\"", new Date(1_700_000_000_123L), 2L, "Tapis\nfourni",
+                List.of(3L, 4L), LocalDateTime.of(2024, 1, 1, 10, 0), LocalDateTime.of(2024, 1, 2, 10, 0, 5, 120_000_000),
+                12, List.of(5L), 45);
+    }
+
+    private String write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void write_shouldProduceSameJsonAsJackson_forEveryDto() throws Exception {
+        // Arrange
+        UserDto user = new UserDto(1L, "yoga@studio.com", "Doe", "Jane", true, "secret", null, LocalDateTime.now());
+        TeacherDto teacher = new TeacherDto(5L, "Doe", "John", LocalDateTime.now(), null);
+        JwtResponse jwt = new JwtResponse("token", 1L, "yoga@studio.com", "Jane", "Doe", false);
+        SessionDto empty = new SessionDto(null, "Empty", null, 2L, "", new ArrayList<>(), null, null, null, null, null);
+
+        // Act & Assert
+        for (Object dto : List.of(session(1), user, teacher, jwt, empty)) {
+            assertThat(write(dto, dto.getClass())).isEqualTo(jackson.writeValueAsString(dto));
+        }
+        assertThat(write(user, UserDto.class)).doesNotContain("secret");
+    }
+
+    @Test
+    void write_shouldFormatDatesLikeJackson_acrossCalendar() throws Exception {
+        // Arrange : dates avant 1970, jours bissextifs, fractions variées, années hors 4 chiffres
+        Random random = new Random(42);
+        List<SessionDto> sessions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long millis = random.nextLong(-5_000_000_000_000L, 7_000_000_000_000L);
+            LocalDateTime local = LocalDateTime.ofEpochSecond(millis / 1000, random.nextInt(4) * 250_000_000 + i % 7,
+                    ZoneOffset.UTC);
+            sessions.add(new SessionDto((long) i, "s", new Date(millis), 1L, "", List.of(), local, local.withNano(0), null, List.of(), 60));
+        }
+        sessions.add(new SessionDto(0L, "s", new Date(951_782_400_000L), 1L, "", List.of(),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999), LocalDateTime.of(999, 12, 31, 0, 0), 1, null, null));
+
+        // Act & Assert
+        assertThat(new String(converter.toJsonBytes(sessions), StandardCharsets.UTF_8))
+                .isEqualTo(jackson.writeValueAsString(sessions));
+    }
+
+    @Test
+    void write_shouldHandleListsOfDtos() throws Exception {
+        // Arrange
+        List<SessionDto> sessions = List.of(session(1), session(2));
+        Type type = new ParameterizedTypeReference<List<SessionDto>>() { }.getType();
+
+        // Act & Assert
+        assertThat(converter.canWrite(type, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(write(sessions, type)).isEqualTo(jackson.writeValueAsString(sessions));
+        assertThat(new String(converter.toJsonBytes(sessions), StandardCharsets.UTF_8))
+                .isEqualTo(jackson.writeValueAsString(sessions));
+    }
+
+    @Test
+    void converter_shouldLeaveOtherTypesAndReadsToJackson() {
+        // Arrange
+        Type maps = new ParameterizedTypeReference<List<Map<String, Object>>>() { }.getType();
+
+        // Act & Assert
+        assertThat(converter.canWrite(Map.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(maps, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(SessionDto.class, MediaType.APPLICATION_CBOR)).isFalse();
+        assertThat(converter.canRead(SessionDto.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.toJsonBytes(Map.of("id", 1))).isNull();
+        assertThat(converter.toJsonBytes(List.of())).isNull();
+    }
+}
@@ -0,0 +1,68 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import com.openclassrooms.starterjwt.services.TeacherService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deux pools H2 sur la même base en mémoire jouent la primaire et le réplica.
+ */
+@SpringBootTest(properties = {
+        "oc.app.datasource.replica.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "oc.app.datasource.replica.driver-class-name=org.h2.Driver",
+        "oc.app.datasource.replica.username=sa"
+})
+@ActiveProfiles("test")
+class ReadWriteDataSourceConfigTest {
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Test
+    void readOnlyTransaction_shouldHoldReplicaConnection() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            // Act
+            teacherService.findAll();
+
+            // Assert
+            assertThat(replicaDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(primaryDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    void readWriteTransaction_shouldHoldPrimaryConnection() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        readWrite.executeWithoutResult(status -> {
+            // Act
+            teacherService.findAll();
+
+            // Assert
+            assertThat(primaryDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(replicaDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+}
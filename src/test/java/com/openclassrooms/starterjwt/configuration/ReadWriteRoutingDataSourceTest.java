@@ -0,0 +1,123 @@
+package com.openclassrooms.starterjwt.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Clock;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, clock);
+
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        when(clock.millis()).thenReturn(1_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRouteToPrimary_outsideReadOnlyTransaction() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    void shouldRouteToReplica_inReadOnlyTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void shouldKeepUserOnPrimary_duringWindowAfterCommittedWrite() {
+        // Arrange : écriture validée à t = 1000 ms
+        TransactionSynchronizationManager.initSynchronization();
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act + Assert : dans la fenêtre -> primaire
+        when(clock.millis()).thenReturn(5_000L);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+
+        // Act + Assert : fenêtre écoulée -> réplica
+        when(clock.millis()).thenReturn(7_000L);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void shouldNotStickOtherUsers_toPrimary() {
+        // Arrange : écriture validée par user@example.com
+        TransactionSynchronizationManager.initSynchronization();
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other@example.com", null, List.of()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act + Assert
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void shouldForgetWriters_afterWindow_evenIfTheyNeverReadAgain() {
+        // Arrange : écriture validée par user@example.com
+        TransactionSynchronizationManager.initSynchronization();
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(tracker.trackedUsers()).isEqualTo(1);
+
+        // Act : fenêtre écoulée, sans nouvelle lecture de cet utilisateur
+        when(clock.millis()).thenReturn(7_000L);
+
+        // Assert
+        assertThat(tracker.trackedUsers()).isZero();
+    }
+
+    @Test
+    void shouldReadFromPrimary_withoutRecordingWrite_whenHinted() {
+        // Arrange : transaction en lecture seule marquée pour la primaire
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadWriteRoutingDataSource.readFromPrimary();
+
+        // Act + Assert
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Assert : aucune écriture enregistrée, la lecture suivante va au réplica
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+}
@@ -0,0 +1,218 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sans transaction de test : l'annulation d'un batch atomique est vérifiée en base.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Teacher teacher;
+    private Session session;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : one session, one teacher, one user
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        user = userRepository.save(User.builder()
+                .email("batch@example.com").firstName("Bob").lastName("Batch").password("pwd").admin(false)
+                .build());
+        session = sessionRepository.save(Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(new Date())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Map<String, Object> sessionBody(String name) {
+        return sessionBody(name, new Date());
+    }
+
+    private Map<String, Object> sessionBody(String name, Date date) {
+        return Map.of("name", name, "date", date.getTime(), "teacher_id", teacher.getId(),
+                "description", "Updated description");
+    }
+
+    private ResultActions batch(boolean atomic, List<Map<String, Object>> operations) throws Exception {
+        return mockMvc.perform(post("/api/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("atomic", atomic, "operations", operations))));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void atomic_shouldApplyAllOperations_inOrder() throws Exception {
+        // Act
+        batch(true, List.of(
+                Map.of("op", "UPDATE", "sessionId", session.getId(), "session", sessionBody("Renamed")),
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", user.getId()),
+                Map.of("op", "CREATE", "session", sessionBody("Evening Yoga",
+                        new Date(System.currentTimeMillis() + 8 * 3_600_000L)))))
+                // Assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results[0].outcome", is("OK")))
+                .andExpect(jsonPath("$.results[0].session.name", is("Renamed")))
+                .andExpect(jsonPath("$.results[1].outcome", is("OK")))
+                .andExpect(jsonPath("$.results[2].session.name", is("Evening Yoga")));
+
+        Session updated = sessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Renamed");
+        assertThat(updated.getUsers()).extracting(User::getId).containsExactly(user.getId());
+        assertThat(sessionRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void atomic_shouldRollBackEverything_whenOneOperationFails() throws Exception {
+        // Act
+        batch(true, List.of(
+                Map.of("op", "UPDATE", "sessionId", session.getId(), "session", sessionBody("Renamed")),
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", 999_999L),
+                Map.of("op", "DELETE", "sessionId", session.getId())))
+                // Assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(false)))
+                .andExpect(jsonPath("$.results[0].outcome", is("ROLLED_BACK")))
+                .andExpect(jsonPath("$.results[1].outcome", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].status", is(404)))
+                .andExpect(jsonPath("$.results[2].outcome", is("SKIPPED")));
+
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getName()).isEqualTo("Morning Yoga");
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void nonAtomic_shouldKeepSuccessfulOperations_andReportFailures() throws Exception {
+        // Act
+        batch(false, List.of(
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", user.getId()),
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", user.getId()),
+                Map.of("op", "DELETE", "sessionId", 999_999L),
+                Map.of("op", "UNPARTICIPATE", "sessionId", session.getId())))
+                // Assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results[0].outcome", is("OK")))
+                .andExpect(jsonPath("$.results[1].status", is(400)))
+                .andExpect(jsonPath("$.results[2].status", is(404)))
+                .andExpect(jsonPath("$.results[3].error", is("userId is required")));
+
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getUsers()).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void atomic_shouldReport409AndRollBack_whenSessionIsFull() throws Exception {
+        // Arrange : une seule place
+        session.setCapacity(1);
+        sessionRepository.save(session);
+        User other = userRepository.save(User.builder()
+                .email("other@example.com").firstName("Ann").lastName("Other").password("pwd").admin(false)
+                .build());
+
+        // Act
+        batch(true, List.of(
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", user.getId()),
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", other.getId())))
+                // Assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(false)))
+                .andExpect(jsonPath("$.results[0].outcome", is("ROLLED_BACK")))
+                .andExpect(jsonPath("$.results[1].outcome", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].status", is(409)))
+                .andExpect(jsonPath("$.results[1].error", is("Session is full")));
+
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getUsers()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void nonAtomic_shouldReport409_whenParticipationsOverlap() throws Exception {
+        // Arrange : une seconde session au même moment
+        Session overlapping = sessionRepository.save(Session.builder()
+                .name("Other Yoga")
+                .description("Same time")
+                .date(session.getDate())
+                .teacher(teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Roe").build()))
+                .users(new ArrayList<>())
+                .build());
+
+        // Act
+        batch(false, List.of(
+                Map.of("op", "PARTICIPATE", "sessionId", session.getId(), "userId", user.getId()),
+                Map.of("op", "PARTICIPATE", "sessionId", overlapping.getId(), "userId", user.getId())))
+                // Assert
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results[0].outcome", is("OK")))
+                .andExpect(jsonPath("$.results[1].outcome", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].status", is(409)))
+                .andExpect(jsonPath("$.results[1].error", is("User is already booked at this time")));
+
+        assertThat(sessionRepository.findById(overlapping.getId()).orElseThrow().getUsers()).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com")
+    void execute_shouldReturn400_whenOperationsAreEmpty() throws Exception {
+        // Act & Assert
+        batch(true, List.of())
+                .andExpect(status().isBadRequest());
+    }
+}
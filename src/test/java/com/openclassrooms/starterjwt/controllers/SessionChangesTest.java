@@ -0,0 +1,151 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sans transaction de test : chaque écriture est validée avant la synchronisation suivante.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionChangesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Teacher teacher;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : cleans database for each test
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+    }
+
+    private Session createSession(String name) {
+        return sessionRepository.save(Session.builder()
+                .name(name)
+                .description("Description")
+                .date(new Date())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+    }
+
+    private JsonNode changes(long since) throws Exception {
+        String body = mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private long nextWatermark() throws InterruptedException {
+        // La fenêtre est semi-ouverte à la milliseconde : on la laisse s'écouler
+        Thread.sleep(5);
+        return System.currentTimeMillis();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void changes_shouldReturnOnlySessionsChangedAfterWatermark() throws Exception {
+        // Arrange
+        createSession("Before");
+        long since = nextWatermark();
+        Session changed = createSession("After");
+        nextWatermark();
+
+        // Act
+        JsonNode result = changes(since);
+
+        // Assert
+        assertThat(result.get("reset").asBoolean()).isFalse();
+        assertThat(result.get("sessions")).hasSize(1);
+        assertThat(result.get("sessions").get(0).get("id").asLong()).isEqualTo(changed.getId());
+        assertThat(result.get("deleted")).isEmpty();
+        assertThat(result.get("watermark").asLong()).isGreaterThan(since);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void changes_shouldReturnTombstone_whenSessionDeleted() throws Exception {
+        // Arrange
+        Session session = createSession("To delete");
+        long since = nextWatermark();
+        mockMvc.perform(delete("/api/session/{id}", session.getId())).andExpect(status().isOk());
+        nextWatermark();
+
+        // Act
+        JsonNode result = changes(since);
+
+        // Assert
+        assertThat(result.get("sessions")).isEmpty();
+        assertThat(result.get("deleted")).hasSize(1);
+        assertThat(result.get("deleted").get(0).asLong()).isEqualTo(session.getId());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void changes_shouldNotRepeatChanges_whenCalledWithReturnedWatermark() throws Exception {
+        // Arrange
+        long since = nextWatermark();
+        createSession("Once");
+        nextWatermark();
+        long watermark = changes(since).get("watermark").asLong();
+
+        // Act
+        JsonNode result = changes(watermark);
+
+        // Assert
+        assertThat(result.get("sessions")).isEmpty();
+        assertThat(result.get("deleted")).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void changes_shouldAskForReset_whenWatermarkOlderThanTombstoneRetention() throws Exception {
+        // Act
+        JsonNode result = changes(0);
+
+        // Assert
+        assertThat(result.get("reset").asBoolean()).isTrue();
+        assertThat(result.get("watermark").asLong()).isPositive();
+    }
+}
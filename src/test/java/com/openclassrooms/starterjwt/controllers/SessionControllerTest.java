@@ -1,5 +1,9 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
@@ -13,18 +17,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -46,6 +61,12 @@ class SessionControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setUp() {
         // Arrange : cleans database for each test
@@ -114,6 +135,32 @@ class SessionControllerTest {
                 .andExpect(jsonPath("$[1].name", is("Evening Yoga")));
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAllSummaries_shouldReturnSessionsWithoutDescription() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+
+        Session session = Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build();
+
+        sessionRepository.save(session);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Morning Yoga")))
+                .andExpect(jsonPath("$[0].teacher_id", is(teacher.getId().intValue())))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].users").doesNotExist());
+    }
+
     @Test
     @WithMockUser(username = "user@example.com")
     void findById_shouldReturnSession_whenExists() throws Exception {
@@ -141,6 +188,244 @@ class SessionControllerTest {
                 .andExpect(jsonPath("$.teacher_id", is(teacher.getId().intValue())));
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findById_shouldReturnParticipants_fromSessionView() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User user = createUser("user@example.com");
+
+        Session session = Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build();
+        session.getUsers().add(user);
+
+        Long id = sessionRepository.save(session).getId();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0]", is(user.getId().intValue())));
+
+        mockMvc.perform(get("/api/session/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].teacherFirstName", is("John")))
+                .andExpect(jsonPath("$[0].teacherLastName", is("Doe")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findById_shouldReturn304_whenETagMatches() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+
+        String eTag = mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session/{id}", saved.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldChangeETag_whenParticipantAdded() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User user = createUser("user@example.com");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+
+        String eTag = mockMvc.perform(get("/api/session"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/session").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Act
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), user.getId()))
+                .andExpect(status().isOk());
+        sessionRepository.flush();
+
+        // Assert
+        mockMvc.perform(get("/api/session").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$[0].users", hasSize(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findById_shouldServeCachedResponse_untilSessionIsWritten() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Morning Yoga")
+                .description("Nice morning session")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Morning Yoga")));
+
+        // Act : une écriture SQL directe ne passe pas par le listener et n'évince rien
+        jdbcTemplate.update("update session_view set name = 'Direct' where session_id = ?", saved.getId());
+
+        // Assert
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.name", is("Morning Yoga")));
+
+        saved.setName("Evening Yoga");
+        sessionRepository.saveAndFlush(saved);
+
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.name", is("Evening Yoga")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldReturnGzippedBody_whenClientAcceptsGzip() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        for (int i = 0; i < 20; i++) {
+            sessionRepository.save(Session.builder()
+                    .name("Session " + i)
+                    .description("A long enough description to push the list past the gzip threshold")
+                    .date(nowAsDate())
+                    .teacher(teacher)
+                    .users(new ArrayList<>())
+                    .build());
+        }
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/session").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept-Encoding"))))
+                .andReturn();
+
+        // Assert
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(json).startsWith("[").contains("Session 19");
+        }
+        mockMvc.perform(get("/api/session"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$", hasSize(20)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAllById_shouldReturnSessionsInRequestedOrder_andReportMissing() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        Session morning = sessionRepository.save(Session.builder()
+                .name("Morning Yoga").description("Desc").date(nowAsDate()).teacher(teacher)
+                .users(new ArrayList<>()).build());
+        Session evening = sessionRepository.save(Session.builder()
+                .name("Evening Yoga").description("Desc").date(nowAsDate()).teacher(teacher)
+                .users(new ArrayList<>()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session").param("ids", evening.getId() + ",999," + morning.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].name", is("Evening Yoga")))
+                .andExpect(jsonPath("$.items[1].name", is("Morning Yoga")))
+                .andExpect(jsonPath("$.missing", hasSize(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldReturnOnlyRequestedFields_whenFieldsGiven() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Morning Yoga").description("Nice morning session").date(nowAsDate()).teacher(teacher)
+                .users(new ArrayList<>()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/session").param("fields", "name,date"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[0].id", is(saved.getId().intValue())))
+                .andExpect(jsonPath("$[0].name", is("Morning Yoga")))
+                .andExpect(jsonPath("$[0].date").exists())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].users").doesNotExist());
+
+        mockMvc.perform(get("/api/session/{id}", saved.getId()).param("fields", "users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(0)))
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldReturn400_whenFieldIsUnknown() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/session").param("fields", "name,teacher_first_name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("teacher_first_name")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldReturnCbor_whenClientAcceptsCbor() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Morning Yoga").description("Nice morning session").date(nowAsDate()).teacher(teacher)
+                .users(new ArrayList<>()).build());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+        // Act
+        MvcResult list = mockMvc.perform(get("/api/session").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", endsWith(";cbor\"")))
+                .andReturn();
+        MvcResult multiGet = mockMvc.perform(get("/api/session").param("ids", String.valueOf(saved.getId()))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Assert
+        SessionDto[] sessions = cborMapper.readValue(list.getResponse().getContentAsByteArray(), SessionDto[].class);
+        assertThat(sessions).extracting(SessionDto::getName).containsExactly("Morning Yoga");
+        JsonNode items = cborMapper.readTree(multiGet.getResponse().getContentAsByteArray()).get("items");
+        assertThat(items.get(0).get("id").asLong()).isEqualTo(saved.getId());
+        mockMvc.perform(get("/api/session").accept(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @WithMockUser(username = "user@example.com")
     void findById_shouldReturn404_whenSessionDoesNotExist() throws Exception {
@@ -316,4 +601,309 @@ class SessionControllerTest {
         Session updated = sessionRepository.findById(sessionId).orElseThrow();
         assertThat(updated.getUsers()).isEmpty();
     }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void participate_shouldReturn409_whenSessionIsFull() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User first = createUser("first@example.com");
+        User second = createUser("second@example.com");
+
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Small session")
+                .description("One mat left")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>(List.of(first)))
+                .capacity(1)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), second.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Session is full")));
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.capacity", is(1)))
+                .andExpect(jsonPath("$.users", hasSize(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void joinWaitlist_shouldQueueUser_andPromoteOnCancellation() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User first = createUser("first@example.com");
+        User second = createUser("second@example.com");
+
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Small session")
+                .description("One mat left")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>(List.of(first)))
+                .capacity(1)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session/{id}/waitlist/{userId}", saved.getId(), second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participating", is(false)))
+                .andExpect(jsonPath("$.position", is(1)));
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.waitlist", hasItem(second.getId().intValue())));
+
+        mockMvc.perform(delete("/api/session/{id}/participate/{userId}", saved.getId(), first.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/session/{id}/waitlist/{userId}", saved.getId(), second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participating", is(true)));
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0]", is(second.getId().intValue())))
+                .andExpect(jsonPath("$.waitlist", hasSize(0)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void hold_shouldTakeSeat_andBecomeParticipationOnConfirm() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User user = createUser("user@example.com");
+        User other = createUser("other@example.com");
+
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Small session")
+                .description("One mat left")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .capacity(1)
+                .build());
+
+        // Act & Assert : la place retenue compte dans la capacité
+        MvcResult hold = mockMvc.perform(post("/api/session/{id}/hold", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId", is(user.getId().intValue())))
+                .andExpect(jsonPath("$.expiresAt").exists())
+                .andReturn();
+        long holdId = objectMapper.readTree(hold.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), other.getId()))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/session/{id}/hold/{holdId}/confirm", saved.getId(), holdId))
+                .andExpect(status().isOk());
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0]", is(user.getId().intValue())));
+
+        mockMvc.perform(post("/api/session/{id}/hold/{holdId}/confirm", saved.getId(), holdId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void update_shouldKeepHeldSeats_whenUsersAreReplaced() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User user = createUser("user@example.com");
+        User other = createUser("other@example.com");
+        User late = createUser("late@example.com");
+
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Small session")
+                .description("Two mats")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .capacity(2)
+                .build());
+        MvcResult hold = mockMvc.perform(post("/api/session/{id}/hold", saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        long holdId = objectMapper.readTree(hold.getResponse().getContentAsString()).get("id").asLong();
+
+        // Act : la liste fournie en bloc s'ajoute à la place retenue
+        SessionDto dto = new SessionDto(null, "Small session", saved.getDate(), teacher.getId(), "Two mats",
+                List.of(other.getId(), late.getId()), null, null, 2, null, null);
+        mockMvc.perform(put("/api/session/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        dto.setUsers(List.of(other.getId()));
+        mockMvc.perform(put("/api/session/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/session/{id}/hold/{holdId}/confirm", saved.getId(), holdId))
+                .andExpect(status().isOk());
+
+        // Assert : la session est complète, sans surréservation
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), late.getId()))
+                .andExpect(status().isConflict());
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/{id}", saved.getId()))
+                .andExpect(jsonPath("$.users", hasSize(2)));
+        assertThat(jdbcTemplate.queryForObject("select seats_taken from sessions where id = ?",
+                Integer.class, saved.getId())).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldReturn409_whenTeacherIsAlreadyBooked() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        String jsonBody = """
+                {
+                  "name": "Yoga",
+                  "description": "Morning class",
+                  "date": "%s",
+                  "duration": 90,
+                  "teacher_id": %d
+                }
+                """;
+        mockMvc.perform(post("/api/session")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody.formatted("2025-01-01T10:00:00.000+00:00", teacher.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration", is(90)));
+
+        // Act & Assert : 11h00 tombe pendant la séance de 10h00 (90 min), 11h30 la suit
+        mockMvc.perform(post("/api/session")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody.formatted("2025-01-01T11:00:00.000+00:00", teacher.getId())))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/session")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody.formatted("2025-01-01T11:30:00.000+00:00", teacher.getId())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void participate_shouldReturn409_whenUserIsBookedInOverlappingSession() throws Exception {
+        // Arrange
+        User user = createUser("user@example.com");
+        Date date = nowAsDate();
+        Session morning = sessionRepository.save(Session.builder()
+                .name("Morning")
+                .description("Hatha")
+                .date(date)
+                .duration(60)
+                .teacher(createTeacher("John", "Doe"))
+                .users(new ArrayList<>())
+                .build());
+        Session overlapping = sessionRepository.save(Session.builder()
+                .name("Overlapping")
+                .description("Vinyasa")
+                .date(new Date(date.getTime() + 30 * 60_000L))
+                .duration(60)
+                .teacher(createTeacher("Jane", "Roe"))
+                .users(new ArrayList<>())
+                .build());
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", morning.getId(), user.getId()))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", overlapping.getId(), user.getId()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldReplayOriginalSession_whenRetriedWithSameIdempotencyKey() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        String jsonBody = """
+                {
+                  "name": "Retried Yoga Session",
+                  "description": "Flaky network",
+                  "date": "2025-01-01T10:00:00.000+00:00",
+                  "teacher_id": %d
+                }
+                """.formatted(teacher.getId());
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(post("/api/session")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        Long id = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(id.intValue())))
+                .andExpect(jsonPath("$.name", is("Retried Yoga Session")));
+
+        // Assert (base)
+        assertThat(sessionRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldReturn422_whenIdempotencyKeyIsReusedForAnotherBody() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        String key = UUID.randomUUID().toString();
+        String body = """
+                {"name": "%s", "description": "d", "date": "2025-01-01T10:00:00.000+00:00", "teacher_id": %d}
+                """;
+        mockMvc.perform(post("/api/session")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.formatted("First", teacher.getId())))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.formatted("Second", teacher.getId())))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(sessionRepository.findAll()).extracting(Session::getName).containsExactly("First");
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void participate_shouldReturn200_whenRetriedWithSameIdempotencyKey() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher("John", "Doe");
+        User user = createUser("user@example.com");
+        Session saved = sessionRepository.save(Session.builder()
+                .name("Participation session")
+                .description("Join us")
+                .date(nowAsDate())
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), user.getId())
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isOk());
+
+        // Act & Assert : without the key, the retry would get 400 "already participating"
+        mockMvc.perform(post("/api/session/{id}/participate/{userId}", saved.getId(), user.getId())
+                        .header("Idempotency-Key", key))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        assertThat(sessionRepository.findById(saved.getId()).orElseThrow().getUsers()).hasSize(1);
+    }
 }
@@ -0,0 +1,114 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sans transaction de test : chaque appel de service valide sa propre transaction,
+ * comme en production, et le mapping DTO a lieu sur des entités détachées.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SessionControllerWithoutOpenInViewTest.LazyTeacherController.class)
+class SessionControllerWithoutOpenInViewTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    private Teacher teacher;
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        if (teacher != null) {
+            teacherRepository.delete(teacher);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldMapCommittedSession() throws Exception {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        String jsonBody = """
+                {
+                  "name": "New Yoga Session",
+                  "description": "Relax and stretch",
+                  "date": "2025-01-01T10:00:00.000+00:00",
+                  "teacher_id": %d
+                }
+                """.formatted(teacher.getId());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/session")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teacher_id", is(teacher.getId().intValue())))
+                .andExpect(jsonPath("$.users").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void lazyAssociation_shouldNotBeLoadable_outsideServiceTransaction() throws Exception {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        // Act & Assert : avec open-in-view, l'EntityManager de la requête chargerait la collection
+        mockMvc.perform(get("/test/osiv/teacher/{id}/sessions", teacher.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("detached"));
+    }
+
+    /**
+     * Lit une association paresseuse dans le contrôleur, après la transaction du repository.
+     */
+    @RestController
+    static class LazyTeacherController {
+
+        private final TeacherRepository teacherRepository;
+
+        LazyTeacherController(TeacherRepository teacherRepository) {
+            this.teacherRepository = teacherRepository;
+        }
+
+        @GetMapping("/test/osiv/teacher/{id}/sessions")
+        String sessions(@PathVariable Long id) {
+            Teacher teacher = this.teacherRepository.findById(id).orElseThrow();
+            try {
+                teacher.getSessions().size();
+                return "loaded";
+            } catch (LazyInitializationException e) {
+                return "detached";
+            }
+        }
+    }
+}
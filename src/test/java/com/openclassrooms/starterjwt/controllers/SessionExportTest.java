@@ -0,0 +1,205 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.ResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sans transaction de test : l'export lit sur sa propre connexion, depuis le thread asynchrone.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    private Teacher teacher;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : cleans database for each test
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from participate");
+        jdbcTemplate.update("delete from waitlist");
+        jdbcTemplate.update("delete from session_view");
+        jdbcTemplate.update("delete from sessions");
+        // Écritures SQL directes : le cache de réponses n'en est pas averti.
+        responseCache.invalidateAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User createUser(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .password("pwd")
+                .admin(false)
+                .build());
+    }
+
+    private Session createSession(String name, String description, List<User> users) {
+        return sessionRepository.save(Session.builder()
+                .name(name)
+                .description(description)
+                .date(new Date())
+                .teacher(teacher)
+                .users(new ArrayList<>(users))
+                .build());
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/session/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Attend la fin de l'écriture sur l'exécuteur asynchrone avant de relire la réponse.
+        result.getAsyncResult();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void export_shouldWriteOneSessionPerLine_asNdjson() throws Exception {
+        // Arrange
+        User alice = createUser("alice@example.com");
+        User bob = createUser("bob@example.com");
+        User carol = createUser("carol@example.com");
+        Session first = createSession("Morning Yoga", "Desc", List.of(alice, bob));
+        createSession("Evening Yoga", "Desc", List.of());
+        first.setCapacity(2);
+        sessionRepository.save(first);
+        mockMvc.perform(post("/api/session/{id}/waitlist/{userId}", first.getId(), carol.getId()))
+                .andExpect(status().isOk());
+
+        // Act
+        List<String> lines = export("ndjson").lines().toList();
+
+        // Assert
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .startsWith("{")
+                .contains("\"id\":" + first.getId())
+                .contains("\"users\":[" + alice.getId() + "," + bob.getId() + "]")
+                .contains("\"teacher_id\":" + teacher.getId())
+                .contains("\"waitlist\":[" + carol.getId() + "]");
+        assertThat(lines.get(1))
+                .startsWith("{")
+                .contains("\"name\":\"Evening Yoga\"")
+                .contains("\"users\":[]")
+                .contains("\"waitlist\":[]");
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void export_shouldWriteOneLinePerAttendance_asCsv() throws Exception {
+        // Arrange
+        User alice = createUser("alice@example.com");
+        Session first = createSession("Yoga, \"flow\"", "Line one", List.of(alice));
+        Session empty = createSession("Evening Yoga", "Desc", List.of());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/session/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sessions.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+
+        // Assert
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("session_id,name,date,teacher_id,description,user_id");
+        assertThat(lines.get(1))
+                .startsWith(first.getId() + ",\"Yoga, \"\"flow\"\"\",")
+                .endsWith("," + teacher.getId() + ",Line one," + alice.getId());
+        assertThat(lines.get(2)).startsWith(empty.getId() + ",Evening Yoga,").endsWith(",Desc,");
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void export_shouldStreamEverySession_acrossFetchBatches() throws Exception {
+        // Arrange : bien plus de lignes que la taille de fetch de test (100)
+        User alice = createUser("alice@example.com");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "insert into sessions (name, date, description, teacher_id) values (?, ?, ?, ?)",
+                IntStream.range(0, 2500).mapToObj(i -> new Object[]{"Session " + i, now, "Desc", teacher.getId()})
+                        .toList());
+        jdbcTemplate.update("insert into participate (session_id, user_id) select id, ? from sessions", alice.getId());
+
+        // Act
+        List<String> lines = export("ndjson").lines().toList();
+
+        // Assert
+        assertThat(lines).hasSize(2500)
+                .allSatisfy(line -> assertThat(line).contains("\"users\":[" + alice.getId() + "]"));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void export_shouldReturnBadRequest_whenFormatUnknown() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/session/export").param("format", "xml").accept(MediaType.ALL))
+                .andExpect(status().isBadRequest());
+    }
+}
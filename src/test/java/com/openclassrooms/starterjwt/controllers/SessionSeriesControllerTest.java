@@ -0,0 +1,296 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class SessionSeriesControllerTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2030, 9, 2, 18, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionSeriesRepository sessionSeriesRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : cleans database for each test
+        sessionRepository.deleteAll();
+        sessionSeriesRepository.deleteAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Teacher createTeacher() {
+        return teacherRepository.save(Teacher.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .build());
+    }
+
+    private User createUser(String email) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .password("pwd")
+                .admin(false)
+                .build());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private long createWeeklySeries(Teacher teacher, int count) throws Exception {
+        SessionSeriesDto dto = new SessionSeriesDto(null, "Weekly Yoga", toDate(FIRST), teacher.getId(),
+                "Every Monday", 60, 2, "FREQ=WEEKLY;COUNT=" + count, null, null);
+        MvcResult result = mockMvc.perform(post("/api/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void calendar_shouldExpandOccurrences_withoutCreatingSessions() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher();
+        long seriesId = createWeeklySeries(teacher, 12);
+        sessionRepository.save(Session.builder()
+                .name("One-off")
+                .description("Workshop")
+                .date(toDate(FIRST.plusDays(1)))
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .build());
+
+        // Act & Assert : septembre 2030, 5 lundis de la série et la session ordinaire
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-09-01")
+                        .param("to", "2030-10-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(jsonPath("$[0].id", nullValue()))
+                .andExpect(jsonPath("$[0].seriesId", is((int) seriesId)))
+                .andExpect(jsonPath("$[0].occurrence", is(toDate(FIRST).getTime())))
+                .andExpect(jsonPath("$[1].name", is("One-off")))
+                .andExpect(jsonPath("$[4].occurrence", is(toDate(FIRST.plusWeeks(3)).getTime())));
+        assertThat(sessionRepository.count()).isEqualTo(1);
+
+        // Après la dernière occurrence (12 semaines), la série ne produit plus rien.
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2031-01-01")
+                        .param("to", "2031-02-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void participate_shouldMaterializeOccurrenceOnce() throws Exception {
+        // Arrange
+        long seriesId = createWeeklySeries(createTeacher(), 12);
+        User first = createUser("first@example.com");
+        User second = createUser("second@example.com");
+        long occurrence = toDate(FIRST.plusWeeks(2)).getTime();
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, occurrence, first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity", is(2)))
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andReturn();
+        long sessionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, occurrence, second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is((int) sessionId)))
+                .andExpect(jsonPath("$.users", hasSize(2)));
+
+        // Assert : une seule ligne, qui remplace l'occurrence calculée dans le calendrier
+        assertThat(sessionRepository.count()).isEqualTo(1);
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-09-01")
+                        .param("to", "2030-10-01"))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[2].id", is((int) sessionId)))
+                .andExpect(jsonPath("$[2].occurrence", is(occurrence)))
+                .andExpect(jsonPath("$[2].users", hasSize(2)))
+                .andExpect(jsonPath("$[3].id", nullValue()));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void updateOccurrence_shouldMoveThisOccurrenceOnly() throws Exception {
+        // Arrange
+        Teacher teacher = createTeacher();
+        long seriesId = createWeeklySeries(teacher, 12);
+        long occurrence = toDate(FIRST.plusWeeks(1)).getTime();
+        Date moved = toDate(FIRST.plusWeeks(1).plusDays(1));
+        SessionDto dto = new SessionDto(null, "Moved Yoga", moved, teacher.getId(), "Tuesday this week",
+                null, null, null, 2, null, 90);
+
+        // Act
+        mockMvc.perform(put("/api/series/{id}/occurrences/{occurrence}", seriesId, occurrence)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Moved Yoga")))
+                .andExpect(jsonPath("$.duration", is(90)));
+
+        // Assert : l'occurrence déplacée n'apparaît qu'une fois, à sa nouvelle date
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-09-01")
+                        .param("to", "2030-10-01"))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[1].name", is("Moved Yoga")))
+                .andExpect(jsonPath("$[1].occurrence", is(occurrence)))
+                .andExpect(jsonPath("$[0].name", is("Weekly Yoga")))
+                .andExpect(jsonPath("$[2].name", is("Weekly Yoga")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void delete_shouldCancelMaterializedOccurrence() throws Exception {
+        // Arrange
+        long seriesId = createWeeklySeries(createTeacher(), 12);
+        User user = createUser("user@example.com");
+        long occurrence = toDate(FIRST.plusWeeks(1)).getTime();
+        MvcResult result = mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, occurrence, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        long sessionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        // Act
+        mockMvc.perform(delete("/api/session/{id}", sessionId))
+                .andExpect(status().isOk());
+
+        // Assert : ni recalculée dans le calendrier, ni matérialisée à nouveau
+        sessionRepository.flush();
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-09-01")
+                        .param("to", "2030-10-01"))
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[1].occurrence", is(toDate(FIRST.plusWeeks(2)).getTime())));
+        mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, occurrence, user.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(sessionRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void participate_shouldReturn404_whenOccurrenceIsNotInSeries() throws Exception {
+        // Arrange
+        long seriesId = createWeeklySeries(createTeacher(), 12);
+        User user = createUser("user@example.com");
+
+        // Act & Assert : un mardi, puis une semaine après la dernière occurrence
+        mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, toDate(FIRST.plusDays(1)).getTime(), user.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/series/{id}/occurrences/{occurrence}/participate/{userId}",
+                        seriesId, toDate(FIRST.plusWeeks(12)).getTime(), user.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(sessionRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldReturn400_whenRecurrenceIsInvalid() throws Exception {
+        // Arrange
+        SessionSeriesDto dto = new SessionSeriesDto(null, "Monthly Yoga", toDate(FIRST), createTeacher().getId(),
+                "Unsupported", 60, null, "FREQ=MONTHLY", null, null);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+        assertThat(sessionSeriesRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void create_shouldReturn400_whenRecurrenceEndsBeforeFirstOccurrence() throws Exception {
+        // Arrange : UNTIL la veille de la première occurrence
+        SessionSeriesDto dto = new SessionSeriesDto(null, "Weekly Yoga", toDate(FIRST), createTeacher().getId(),
+                "Every Monday", 60, null, "FREQ=WEEKLY;UNTIL=20300901", null, null);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+        assertThat(sessionSeriesRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void calendar_shouldReturn400_whenRangeIsTooLong() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-01-01")
+                        .param("to", "2032-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/session/calendar")
+                        .param("from", "2030-01-02")
+                        .param("to", "2030-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
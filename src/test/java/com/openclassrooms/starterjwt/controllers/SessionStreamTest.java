@@ -0,0 +1,95 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.services.SessionEventStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sans transaction de test : les évènements ne sont diffusés qu'après validation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private SessionEventStream sessionEventStream;
+
+    private Teacher teacher;
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        if (teacher != null) {
+            teacherRepository.delete(teacher);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void stream_shouldPushCreatedSession_toOpenSubscriber() throws Exception {
+        // Arrange : un abonné connecté avant l'écriture
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        MvcResult stream = mockMvc.perform(get("/api/session/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String jsonBody = """
+                {
+                  "name": "Streamed Yoga",
+                  "description": "Relax and stretch",
+                  "date": "2025-01-01T10:00:00.000+00:00",
+                  "teacher_id": %d
+                }
+                """.formatted(teacher.getId());
+
+        // Act
+        mockMvc.perform(post("/api/session")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBody))
+                .andExpect(status().isOk());
+
+        // Assert : l'évènement est écrit sur la connexion ouverte
+        String body = awaitContent(stream, "Streamed Yoga");
+        assertThat(body)
+                .contains("event:created")
+                .contains("id:")
+                .contains("\"name\":\"Streamed Yoga\"");
+        assertThat(sessionEventStream.subscriberCount()).isPositive();
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,198 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Sans transaction de test : le pool R2DBC ne voit que les données validées.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionV2ControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private Teacher teacher;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : cleans database for each test
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        user = userRepository.save(User.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .password("pwd")
+                .admin(false)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Session createSession(String name, List<User> users) {
+        return sessionRepository.save(Session.builder()
+                .name(name)
+                .description("Description")
+                .date(new Date())
+                .teacher(teacher)
+                .users(new ArrayList<>(users))
+                .build());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldStreamSessionsAsNdjson() throws Exception {
+        // Arrange
+        Session first = createSession("Morning Yoga", List.of(user));
+        createSession("Evening Yoga", List.of());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/session").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert : une ligne JSON par session, dans l'ordre des identifiants
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .contains("\"id\":" + first.getId())
+                .contains("\"name\":\"Morning Yoga\"")
+                .contains("\"users\":[" + user.getId() + "]");
+        assertThat(lines.get(1)).contains("\"name\":\"Evening Yoga\"");
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findAll_shouldReturnJsonArray_whenJsonRequested() throws Exception {
+        // Arrange
+        createSession("Morning Yoga", List.of());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/session").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].teacher_id", is(teacher.getId().intValue())));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findById_shouldReturnSession() throws Exception {
+        // Arrange
+        Session session = createSession("Morning Yoga", List.of(user));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/session/{id}", session.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Morning Yoga")))
+                .andExpect(jsonPath("$.users[0]", is(user.getId().intValue())));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void findById_shouldReturnNotFound_whenUnknown() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/session/{id}", 999999L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void findAll_shouldAcceptJwt_onAsyncDispatch() throws Exception {
+        // Arrange
+        createSession("Morning Yoga", List.of());
+        UserDetailsImpl principal = UserDetailsImpl.builder().username(user.getEmail()).build();
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/session")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void findAll_shouldBeRejected_withoutAuthentication() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v2/session").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -12,6 +12,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -82,6 +86,85 @@ class TeacherControllerTest {
                 .andExpect(jsonPath("$.lastName", is("Doe")));
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findById_shouldReturn304_whenETagMatches() throws Exception {
+        // Arrange
+        Teacher saved = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        String eTag = mockMvc.perform(get("/api/teacher/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/teacher/{id}", saved.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findAll_shouldChangeETag_whenTeacherAdded() throws Exception {
+        // Arrange
+        teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        String eTag = mockMvc.perform(get("/api/teacher"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/teacher").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Act
+        teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Smith").build());
+
+        // Assert
+        mockMvc.perform(get("/api/teacher").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findAllById_shouldReturnTeachersInRequestedOrder_andReportMissing() throws Exception {
+        // Arrange
+        Teacher john = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Teacher jane = teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Smith").build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/teacher").param("ids", jane.getId() + ",999," + john.getId() + "," + jane.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].firstName", is("Jane")))
+                .andExpect(jsonPath("$.items[1].firstName", is("John")))
+                .andExpect(jsonPath("$.missing", contains(999)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findAllById_shouldReturn400_whenTooManyIds() throws Exception {
+        // Arrange
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/teacher").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findAll_shouldReturnOnlyRequestedFields_whenFieldsGiven() throws Exception {
+        // Arrange
+        teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/teacher").param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName", is("Doe")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void findById_shouldReturn404_whenTeacherDoesNotExist() throws Exception {
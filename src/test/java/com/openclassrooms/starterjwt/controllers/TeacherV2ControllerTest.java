@@ -0,0 +1,98 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TeacherV2ControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange : cleans database for each test
+        sessionRepository.deleteAll();
+        teacherRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teacherRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findAll_shouldReturnTeachers() throws Exception {
+        // Arrange
+        teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        teacherRepository.save(Teacher.builder().firstName("Jane").lastName("Smith").build());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/teacher").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].lastName", is("Doe")));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findById_shouldReturnTeacher() throws Exception {
+        // Arrange
+        Teacher teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/teacher/{id}", teacher.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("John")));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void findById_shouldReturnNotFound_whenUnknown() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v2/teacher/{id}", 999999L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
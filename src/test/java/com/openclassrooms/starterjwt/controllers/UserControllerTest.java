@@ -12,6 +12,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -60,6 +61,45 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.admin", is(false)));
     }
 
+    @Test
+    @WithMockUser(username = "john.doe@example.com")
+    void findAllById_shouldReturnUsersInRequestedOrder_andReportMissing() throws Exception {
+        // Arrange
+        User john = userRepository.save(User.builder()
+                .email("john.doe@example.com").firstName("John").lastName("Doe").password("pwd").admin(false)
+                .build());
+        User jane = userRepository.save(User.builder()
+                .email("jane.doe@example.com").firstName("Jane").lastName("Doe").password("pwd").admin(false)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user").param("ids", jane.getId() + "," + john.getId() + ",999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email", is("jane.doe@example.com")))
+                .andExpect(jsonPath("$.items[1].email", is("john.doe@example.com")))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.missing", contains(999)));
+    }
+
+    @Test
+    @WithMockUser(username = "john.doe@example.com")
+    void findById_shouldReturnOnlyRequestedFields_andNeverPassword() throws Exception {
+        // Arrange
+        User saved = userRepository.save(User.builder()
+                .email("john.doe@example.com").firstName("John").lastName("Doe").password("pwd").admin(true)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/{id}", saved.getId()).param("fields", "firstName,admin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("John")))
+                .andExpect(jsonPath("$.admin", is(true)))
+                .andExpect(jsonPath("$.email").doesNotExist());
+
+        mockMvc.perform(get("/api/user/{id}", saved.getId()).param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "any@example.com")
     void findById_shouldReturn404_whenUserDoesNotExist() throws Exception {
@@ -126,6 +166,28 @@ class UserControllerTest {
         org.assertj.core.api.Assertions.assertThat(exists).isTrue();
     }
 
+    @Test
+    @WithMockUser(username = "john.doe@example.com")
+    void findById_shouldReturn304_whenETagMatches() throws Exception {
+        // Arrange
+        User saved = userRepository.save(User.builder()
+                .email("john.doe@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password("pwd")
+                .admin(false)
+                .build());
+
+        String eTag = mockMvc.perform(get("/api/user/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/user/{id}", saved.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @WithMockUser(username = "someone@example.com")
     void delete_shouldReturn404_whenUserDoesNotExist() throws Exception {
@@ -0,0 +1,157 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.UnprocessableEntityException;
+import com.openclassrooms.starterjwt.repository.IdempotencyRecord;
+import com.openclassrooms.starterjwt.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = newService();
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(idempotencyRepository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 100, 3600);
+    }
+
+    private ResponseEntity<SessionDto> create(IdempotencyService service, String key, String name) {
+        SessionDto request = new SessionDto(null, name, null, 1L, "desc", List.of(), null, null, null, null, null);
+        return service.execute(key, "session:create", request, SessionDto.class, () -> {
+            executions.incrementAndGet();
+            request.setId(42L);
+            return ResponseEntity.ok(request);
+        });
+    }
+
+    @Test
+    void execute_shouldRunActionOnce_andReplayFromMemory() {
+        // Act
+        ResponseEntity<SessionDto> first = create(idempotencyService, "key-1", "Yoga");
+        ResponseEntity<SessionDto> retry = create(idempotencyService, "key-1", "Yoga");
+
+        // Assert
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getBody().getId()).isEqualTo(42L);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        verify(idempotencyRepository, times(1)).find(eq(""), eq("key-1"), any());
+        verify(idempotencyRepository).insert(eq(""), eq("key-1"), any(), any());
+    }
+
+    @Test
+    void execute_shouldReplayFromDatabase_whenResponseIsNotInMemory() {
+        // Arrange : first instance records the response
+        create(idempotencyService, "key-2", "Yoga");
+        ArgumentCaptor<IdempotencyRecord> recorded = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRepository).insert(eq(""), eq("key-2"), recorded.capture(), any());
+        when(idempotencyRepository.find(eq(""), eq("key-2"), any())).thenReturn(Optional.of(recorded.getValue()));
+
+        // Act : another instance (empty memory) receives the retry
+        ResponseEntity<SessionDto> retry = create(newService(), "key-2", "Yoga");
+
+        // Assert
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getBody().getId()).isEqualTo(42L);
+        assertThat(retry.getBody().getName()).isEqualTo("Yoga");
+    }
+
+    @Test
+    void execute_shouldReturn422_whenKeyIsReusedForAnotherRequest() {
+        // Arrange
+        create(idempotencyService, "key-3", "Yoga");
+
+        // Act & Assert
+        assertThrows(UnprocessableEntityException.class, () -> create(idempotencyService, "key-3", "Pilates"));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_shouldReturn409_whileSameKeyIsInProgress() {
+        // Act & Assert : a retry arrives while the first request is still running
+        assertThrows(ConflictException.class, () -> idempotencyService.execute("key-4", "session:create", null,
+                Void.class, () -> {
+                    create(idempotencyService, "key-4", "Yoga");
+                    return ResponseEntity.ok().build();
+                }));
+        verify(idempotencyRepository, never()).insert(any(), any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldNotRecordFailure_soRetryRunsAgain() {
+        // Act
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute("key-5", "session:participate:1:2",
+                null, Void.class, () -> {
+                    executions.incrementAndGet();
+                    throw new BadRequestException();
+                }));
+        ResponseEntity<Void> retry = idempotencyService.execute("key-5", "session:participate:1:2", null,
+                Void.class, () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok().build();
+                });
+
+        // Assert
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatusCode().value()).isEqualTo(200);
+        verify(idempotencyRepository, times(1)).insert(any(), any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldRunWithoutStore_whenNoKeyIsGiven() {
+        // Act
+        create(idempotencyService, null, "Yoga");
+        create(idempotencyService, null, "Yoga");
+
+        // Assert
+        assertThat(executions).hasValue(2);
+        verify(idempotencyRepository, never()).find(any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldReturn400_whenKeyIsBlank() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> create(idempotencyService, " ", "Yoga"));
+        assertThat(executions).hasValue(0);
+    }
+}
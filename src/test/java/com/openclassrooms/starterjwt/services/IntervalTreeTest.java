@@ -0,0 +1,73 @@
+package com.openclassrooms.starterjwt.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    @Test
+    void findOverlap_shouldIgnoreAdjacentIntervals_andExcludedId() {
+        // Arrange
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 100, 200);
+
+        // Act & Assert : [start, end), la fin d'un créneau peut être le début du suivant
+        assertThat(tree.findOverlap(200, 300, -1)).isNull();
+        assertThat(tree.findOverlap(0, 100, -1)).isNull();
+        assertThat(tree.findOverlap(150, 160, -1)).isEqualTo(1L);
+        assertThat(tree.findOverlap(150, 160, 1)).isNull();
+    }
+
+    @Test
+    void put_shouldReplaceIntervalWithSameId() {
+        // Arrange
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 100, 200);
+
+        // Act
+        tree.put(1, 500, 600);
+
+        // Assert
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.findOverlap(150, 160, -1)).isNull();
+        assertThat(tree.findOverlap(550, 560, -1)).isEqualTo(1L);
+    }
+
+    @Test
+    void findOverlap_shouldMatchLinearScan_underRandomPutsAndRemoves() {
+        // Arrange : intervalles de longueurs variées, dont certains très longs
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                // Act
+                assertThat(tree.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                long start = random.nextInt(1_000_000);
+                long end = start + 1 + (random.nextInt(10) == 0 ? random.nextInt(200_000) : random.nextInt(500));
+                tree.put(id, start, end);
+                expected.put(id, new long[]{start, end});
+            }
+
+            // Assert
+            long start = random.nextInt(1_000_000);
+            long end = start + 1 + random.nextInt(1_000);
+            Long found = tree.findOverlap(start, end, -1);
+            boolean overlaps = expected.values().stream().anyMatch(iv -> iv[0] < end && start < iv[1]);
+            assertThat(found != null).isEqualTo(overlaps);
+            if (found != null) {
+                long[] interval = expected.get(found);
+                assertThat(interval[0] < end && start < interval[1]).isTrue();
+            }
+        }
+        assertThat(tree.size()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    void occurrences_shouldStartFromWindow_forUnboundedSeries() {
+        // Arrange : toutes les deux semaines, sans fin
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2");
+
+        // Act : dix ans plus tard, seules les occurrences de la fenêtre sont calculées
+        List<Date> occurrences = rule.occurrences(toDate(FIRST),
+                toDate(FIRST.plusYears(10)), toDate(FIRST.plusYears(10).plusWeeks(6)));
+
+        // Assert
+        assertThat(occurrences).hasSize(3);
+        assertThat(occurrences).allMatch(date -> rule.isOccurrence(toDate(FIRST), date));
+        assertThat(rule.last(toDate(FIRST))).isNull();
+    }
+
+    @Test
+    void occurrences_shouldStopAfterCount_andUntil() {
+        // Arrange
+        RecurrenceRule count = RecurrenceRule.parse("FREQ=DAILY;COUNT=3");
+        RecurrenceRule until = RecurrenceRule.parse("FREQ=WEEKLY;UNTIL=20300121");
+        Date first = toDate(FIRST);
+
+        // Act & Assert : UNTIL inclut le jour indiqué
+        assertThat(count.occurrences(first, first, toDate(FIRST.plusMonths(1))))
+                .containsExactly(first, toDate(FIRST.plusDays(1)), toDate(FIRST.plusDays(2)));
+        assertThat(count.last(first)).isEqualTo(toDate(FIRST.plusDays(2)));
+        assertThat(until.occurrences(first, first, toDate(FIRST.plusMonths(1))))
+                .containsExactly(first, toDate(FIRST.plusWeeks(1)), toDate(FIRST.plusWeeks(2)));
+        assertThat(until.last(first)).isEqualTo(toDate(FIRST.plusWeeks(2)));
+    }
+
+    @Test
+    void isOccurrence_shouldRejectOtherDaysTimesAndOutOfBounds() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;COUNT=4");
+        Date first = toDate(FIRST);
+
+        // Act & Assert
+        assertThat(rule.isOccurrence(first, toDate(FIRST.plusWeeks(3)))).isTrue();
+        assertThat(rule.isOccurrence(first, toDate(FIRST.plusWeeks(4)))).isFalse();
+        assertThat(rule.isOccurrence(first, toDate(FIRST.minusWeeks(1)))).isFalse();
+        assertThat(rule.isOccurrence(first, toDate(FIRST.plusDays(1)))).isFalse();
+        assertThat(rule.isOccurrence(first, toDate(FIRST.plusWeeks(1).plusHours(1)))).isFalse();
+    }
+
+    @Test
+    void hasOccurrence_shouldBeFalse_whenUntilIsBeforeFirstDate() {
+        // Arrange
+        Date first = toDate(FIRST);
+
+        // Act & Assert : UNTIL le jour même compte, la veille non
+        assertThat(RecurrenceRule.parse("FREQ=WEEKLY;UNTIL=20300107").hasOccurrence(first)).isTrue();
+        assertThat(RecurrenceRule.parse("FREQ=WEEKLY;UNTIL=20300106").hasOccurrence(first)).isFalse();
+        assertThat(RecurrenceRule.parse("FREQ=DAILY;COUNT=1").hasOccurrence(first)).isTrue();
+    }
+
+    @Test
+    void parse_shouldRejectUnsupportedRules() {
+        // Act & Assert
+        for (String rule : List.of("FREQ=MONTHLY", "FREQ=WEEKLY;COUNT=2;UNTIL=20300101",
+                "FREQ=WEEKLY;INTERVAL=0", "FREQ=WEEKLY;BYDAY=MO", "FREQ=DAILY;UNTIL=tomorrow", "WEEKLY")) {
+            assertThatThrownBy(() -> RecurrenceRule.parse(rule)).isInstanceOf(BadRequestException.class);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.configuration.GeneratedJsonHttpMessageConverter;
+import com.openclassrooms.starterjwt.configuration.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    @Mock
+    private GeneratedJsonHttpMessageConverter generatedJson;
+
+    private ResponseCache responseCache() {
+        return new ResponseCache(new ObjectMapper(), new MappingJackson2CborHttpMessageConverter(), generatedJson,
+                new SimpleMeterRegistry(), transactionManager, readYourWritesTracker, true, 1_000_000, 300, 1024);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+
+    @Test
+    void respond_shouldReadMissFromPrimary_whenReplicaIsConfigured() {
+        // Arrange
+        when(readYourWritesTracker.getIfAvailable()).thenReturn(mock(ReadYourWritesTracker.class));
+        ResponseCache responseCache = responseCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act : le second appel est servi depuis le cache
+        ResponseEntity<byte[]> first = responseCache.respond("session:1", request(),
+                () -> "\"1\"", () -> Map.of("id", loads.incrementAndGet()));
+        ResponseEntity<byte[]> second = responseCache.respond("session:1", request(),
+                () -> "\"1\"", () -> Map.of("id", loads.incrementAndGet()));
+
+        // Assert : ETag et corps lus chacun dans une transaction readOnly, une seule fois
+        assertThat(loads).hasValue(1);
+        assertThat(new String(second.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void respond_shouldNotOpenTransaction_withoutReplica() {
+        // Arrange
+        ResponseCache responseCache = responseCache();
+
+        // Act
+        ResponseEntity<byte[]> response = responseCache.respond("teacher:1", request(),
+                () -> "\"1\"", () -> Map.of("id", 1));
+
+        // Assert
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
@@ -0,0 +1,128 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.ScheduleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ScheduleIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final ScheduleIndex scheduleIndex = new ScheduleIndex(mock(ScheduleRepository.class));
+
+    private final Teacher teacher = Teacher.builder().id(1L).build();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private Session session(long id, long start, User... users) {
+        return Session.builder()
+                .id(id)
+                .date(new Date(start))
+                .duration(60)
+                .teacher(this.teacher)
+                .users(new ArrayList<>(List.of(users)))
+                .build();
+    }
+
+    @Test
+    void book_shouldRejectParticipantAlreadyBooked_whenUsersAreSetInBulk() {
+        // Arrange
+        User user = user(7L);
+        scheduleIndex.book(session(1, 0, user));
+        Session other = session(2, HOUR / 2, user);
+        other.setTeacher(Teacher.builder().id(2L).build());
+
+        // Act & Assert
+        assertThatThrownBy(() -> scheduleIndex.book(other))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("User is already booked at this time");
+    }
+
+    @Test
+    void book_shouldRejectMove_ontoParticipantsOtherSession() {
+        // Arrange
+        User user = user(7L);
+        scheduleIndex.book(session(1, 0, user));
+        Session moved = session(2, 2 * HOUR, user);
+        moved.setTeacher(Teacher.builder().id(2L).build());
+        scheduleIndex.book(moved);
+
+        // Act & Assert : déplacée sur le créneau de la session 1
+        moved.setDate(new Date(0));
+        assertThatThrownBy(() -> scheduleIndex.book(moved)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void rollback_shouldKeepSlotCommittedByLaterTransaction() {
+        // Arrange : T1 déplace la session à 10 h sans valider
+        scheduleIndex.book(session(1, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        scheduleIndex.book(session(1, 10 * HOUR));
+        List<TransactionSynchronization> first = TransactionSynchronizationManager.getSynchronizations();
+        Object firstChanges = TransactionSynchronizationManager.unbindResource(scheduleIndex);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // T2 la déplace à 12 h et valide
+        TransactionSynchronizationManager.initSynchronization();
+        scheduleIndex.book(session(1, 12 * HOUR));
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Act : T1 est annulée
+        TransactionSynchronizationManager.bindResource(scheduleIndex, firstChanges);
+        TransactionSynchronizationUtils.invokeAfterCompletion(first, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert : le créneau validé par T2 reste en place
+        assertThatThrownBy(() -> scheduleIndex.book(session(2, 12 * HOUR)))
+                .isInstanceOf(ConflictException.class);
+        scheduleIndex.book(session(3, 0));
+        scheduleIndex.book(session(4, 10 * HOUR));
+    }
+
+    @Test
+    void rollback_shouldRestoreSlotFromBeforeTransaction_afterSeveralWrites() {
+        // Arrange
+        scheduleIndex.book(session(1, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        scheduleIndex.book(session(1, 10 * HOUR));
+        scheduleIndex.book(session(1, 12 * HOUR));
+
+        // Act
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Assert
+        assertThat(TransactionSynchronizationManager.hasResource(scheduleIndex)).isFalse();
+        assertThatThrownBy(() -> scheduleIndex.book(session(2, 0))).isInstanceOf(ConflictException.class);
+        scheduleIndex.book(session(3, 10 * HOUR));
+        scheduleIndex.book(session(4, 12 * HOUR));
+    }
+}
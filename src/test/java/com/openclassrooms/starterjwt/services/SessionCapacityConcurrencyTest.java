@@ -0,0 +1,306 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SeatHoldDto;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sans transaction de test : chaque réservation valide sa propre transaction,
+ * en concurrence avec les autres, comme en production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionCapacityConcurrencyTest {
+
+    private static final int ATTEMPTS = 2000;
+    private static final int CAPACITY = 50;
+    private static final int OTHER_SESSION_ATTEMPTS = 200;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private SeatHoldExpiry seatHoldExpiry;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Teacher teacher;
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll();
+        jdbcTemplate.update("delete from waitlist");
+        jdbcTemplate.update("delete from seat_holds");
+        jdbcTemplate.update("delete from users where email like 'stress-%'");
+        if (teacher != null) {
+            teacherRepository.delete(teacher);
+        }
+    }
+
+    private Session createSession(String name, Integer capacity) {
+        return createSession(name, capacity, new Date());
+    }
+
+    private Session createSession(String name, Integer capacity, Date date) {
+        return sessionRepository.save(Session.builder()
+                .name(name)
+                .date(date)
+                .description("Stress")
+                .teacher(teacher)
+                .users(new ArrayList<>())
+                .capacity(capacity)
+                .build());
+    }
+
+    private List<Long> createUsers(int count) {
+        jdbcTemplate.batchUpdate("insert into users (email, last_name, first_name, password, admin) "
+                        + "values (?, 'Last', 'First', 'pwd', false)",
+                IntStream.range(0, count).mapToObj(i -> new Object[]{"stress-" + i + "@example.com"}).toList());
+        return jdbcTemplate.queryForList("select id from users where email like 'stress-%' order by id", Long.class);
+    }
+
+    @Test
+    void participate_shouldNeverOversell_underThousandsOfConcurrentJoins() throws Exception {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Session hot = createSession("Hot", CAPACITY);
+        // Le lendemain : un même utilisateur peut réserver les deux
+        Session other = createSession("Other", null, new Date(System.currentTimeMillis() + 86_400_000L));
+        List<Long> userIds = createUsers(ATTEMPTS);
+
+        List<Runnable> attempts = new ArrayList<>();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        for (Long userId : userIds) {
+            attempts.add(() -> {
+                try {
+                    sessionService.participate(hot.getId(), userId);
+                    booked.incrementAndGet();
+                } catch (ConflictException e) {
+                    full.incrementAndGet();
+                }
+            });
+        }
+        // Des réservations sur une autre session, mêlées aux premières, ne doivent pas être refusées
+        for (Long userId : userIds.subList(0, OTHER_SESSION_ATTEMPTS)) {
+            attempts.add(() -> sessionService.participate(other.getId(), userId));
+        }
+        Collections.shuffle(attempts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Runnable attempt : attempts) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    attempt.run();
+                    return null;
+                }));
+            }
+
+            // Act
+            start.countDown();
+
+            // Assert : aucune tentative n'échoue autrement que par "complet"
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(booked).hasValue(CAPACITY);
+        assertThat(full).hasValue(ATTEMPTS - CAPACITY);
+        assertThat(countParticipants(hot.getId())).isEqualTo(CAPACITY);
+        assertThat(countParticipants(other.getId())).isEqualTo(OTHER_SESSION_ATTEMPTS);
+        assertThat(sessionRepository.findById(hot.getId()).orElseThrow().getSeatsTaken()).isEqualTo(CAPACITY);
+        assertThat(jdbcTemplate.queryForObject("select participant_count from session_view where session_id = ?",
+                Integer.class, hot.getId())).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void noLongerParticipate_shouldFreeTheSeat() {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Session session = createSession("Small", 1);
+        List<Long> userIds = createUsers(2);
+        sessionService.participate(session.getId(), userIds.get(0));
+
+        // Act
+        sessionService.noLongerParticipate(session.getId(), userIds.get(0));
+        sessionService.participate(session.getId(), userIds.get(1));
+
+        // Assert
+        assertThat(countParticipants(session.getId())).isEqualTo(1);
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getSeatsTaken()).isEqualTo(1);
+    }
+
+    @Test
+    void noLongerParticipate_shouldPromoteWaitlistInOrder_underConcurrentCancellations() throws Exception {
+        // Arrange : session complète, 50 utilisateurs en attente
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Session session = createSession("Waitlisted", 20);
+        List<Long> userIds = createUsers(70);
+        List<Long> participants = userIds.subList(0, 20);
+        List<Long> waiting = userIds.subList(20, 70);
+        participants.forEach(userId -> sessionService.participate(session.getId(), userId));
+        waiting.forEach(userId -> sessionService.joinWaitlist(session.getId(), userId));
+
+        ExecutorService executor = Executors.newFixedThreadPool(participants.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Long userId : participants) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    sessionService.noLongerParticipate(session.getId(), userId);
+                    return null;
+                }));
+            }
+
+            // Act
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert : chaque place libérée est allée au suivant de la file, sans doublon ni perte
+        assertThat(jdbcTemplate.queryForList("select user_id from participate where session_id = ?",
+                Long.class, session.getId())).containsExactlyInAnyOrderElementsOf(waiting.subList(0, 20));
+        assertThat(jdbcTemplate.queryForList("select user_id from waitlist where session_id = ? order by id",
+                Long.class, session.getId())).containsExactlyElementsOf(waiting.subList(20, 50));
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getSeatsTaken()).isEqualTo(20);
+        assertThat(sessionService.getWaitlistPosition(session.getId(), waiting.get(20)).getPosition()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select waitlist_ids from session_view where session_id = ?",
+                String.class, session.getId())).startsWith(waiting.get(20) + "," + waiting.get(21) + ",");
+    }
+
+    @Test
+    void hold_shouldNeverOversell_andExpiredHoldsGoToWaitlist() throws Exception {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Session session = createSession("Checkout", CAPACITY);
+        List<Long> userIds = createUsers(500);
+
+        AtomicInteger held = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i++) {
+                String email = "stress-" + i + "@example.com";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        seatHoldService.hold(session.getId(), email);
+                        held.incrementAndGet();
+                    } catch (ConflictException e) {
+                        // complet
+                    }
+                    return null;
+                }));
+            }
+
+            // Act
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(held).hasValue(CAPACITY);
+        assertThat(countHeldSeats(session.getId())).isEqualTo(CAPACITY);
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getSeatsTaken()).isEqualTo(CAPACITY);
+
+        // Act : redémarrage après l'échéance, un utilisateur attend une place
+        Long waiting = userIds.get(userIds.size() - 1);
+        sessionService.joinWaitlist(session.getId(), waiting);
+        jdbcTemplate.update("update seat_holds set expires_at = ?", LocalDateTime.now().minusSeconds(1));
+        seatHoldExpiry.recover();
+
+        // Assert : toutes les places sont rendues au tick suivant, la première au premier de la file
+        assertThat(awaitHeldSeats(session.getId())).isZero();
+        assertThat(jdbcTemplate.queryForList("select user_id from participate where session_id = ?",
+                Long.class, session.getId())).containsExactly(waiting);
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getSeatsTaken()).isEqualTo(1);
+    }
+
+    @Test
+    void expire_shouldDoNothing_onceHoldIsConfirmed() {
+        // Arrange
+        teacher = teacherRepository.save(Teacher.builder().firstName("John").lastName("Doe").build());
+        Session session = createSession("Small", 1);
+        createUsers(1);
+        SeatHoldDto hold = seatHoldService.hold(session.getId(), "stress-0@example.com");
+        seatHoldService.confirm(session.getId(), hold.getId(), "stress-0@example.com");
+
+        // Act
+        boolean expired = seatHoldService.expire(hold.getId());
+
+        // Assert
+        assertThat(expired).isFalse();
+        assertThat(countParticipants(session.getId())).isEqualTo(1);
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getSeatsTaken()).isEqualTo(1);
+    }
+
+    private int awaitHeldSeats(Long sessionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        int held = countHeldSeats(sessionId);
+        while (held > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            held = countHeldSeats(sessionId);
+        }
+        return held;
+    }
+
+    private int countHeldSeats(Long sessionId) {
+        return jdbcTemplate.queryForObject("select count(*) from seat_holds where session_id = ?",
+                Integer.class, sessionId);
+    }
+
+    private int countParticipants(Long sessionId) {
+        return jdbcTemplate.queryForObject("select count(*) from participate where session_id = ?",
+                Integer.class, sessionId);
+    }
+}
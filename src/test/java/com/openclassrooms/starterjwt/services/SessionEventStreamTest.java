@@ -0,0 +1,152 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionEventStreamTest {
+
+    @Mock
+    private SessionViewService sessionViewService;
+
+    private SessionEventStream sessionEventStream;
+
+    @BeforeEach
+    void setUp() {
+        sessionEventStream = new SessionEventStream(sessionViewService, 3, 4, 15);
+    }
+
+    private SessionDto session(Long id) {
+        SessionDto dto = new SessionDto();
+        dto.setId(id);
+        dto.setName("Yoga " + id);
+        return dto;
+    }
+
+    @Test
+    void onSessionChanged_shouldFanOutDeltaToEverySubscriber() {
+        // Arrange
+        when(sessionViewService.getById(1L)).thenReturn(session(1L));
+        List<SessionStreamEvent> first = new CopyOnWriteArrayList<>();
+        List<SessionStreamEvent> second = new CopyOnWriteArrayList<>();
+        Disposable a = sessionEventStream.subscribe(null).subscribe(first::add);
+        Disposable b = sessionEventStream.subscribe(null).subscribe(second::add);
+
+        // Act
+        sessionEventStream.onSessionChanged(new SessionChangedEvent(SessionChangedEvent.Type.PARTICIPATION, 1L));
+
+        // Assert
+        assertThat(first).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo("participation");
+            assertThat(event.session().getName()).isEqualTo("Yoga 1");
+        });
+        assertThat(second).hasSize(1);
+        assertThat(sessionEventStream.subscriberCount()).isEqualTo(2);
+
+        a.dispose();
+        b.dispose();
+        assertThat(sessionEventStream.subscriberCount()).isZero();
+    }
+
+    @Test
+    void onSessionChanged_shouldSendIdOnly_whenDeleted() {
+        // Arrange
+        List<SessionStreamEvent> received = new CopyOnWriteArrayList<>();
+        sessionEventStream.subscribe(null).subscribe(received::add);
+
+        // Act
+        sessionEventStream.onSessionChanged(new SessionChangedEvent(SessionChangedEvent.Type.DELETED, 7L));
+
+        // Assert
+        assertThat(received).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo("deleted");
+            assertThat(event.session().getId()).isEqualTo(7L);
+            assertThat(event.session().getName()).isNull();
+        });
+    }
+
+    @Test
+    void onSessionChanged_shouldSkip_whenSessionAlreadyGone() {
+        // Arrange
+        when(sessionViewService.getById(1L)).thenThrow(new NotFoundException());
+        List<SessionStreamEvent> received = new CopyOnWriteArrayList<>();
+        sessionEventStream.subscribe(null).subscribe(received::add);
+
+        // Act
+        sessionEventStream.onSessionChanged(new SessionChangedEvent(SessionChangedEvent.Type.UPDATED, 1L));
+
+        // Assert
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void subscribe_shouldReplayEventsAfterLastEventId() {
+        // Arrange
+        List<SessionStreamEvent> live = new CopyOnWriteArrayList<>();
+        sessionEventStream.subscribe(null).subscribe(live::add);
+        sessionEventStream.publish("updated", session(1L));
+        sessionEventStream.publish("updated", session(2L));
+        sessionEventStream.publish("updated", session(3L));
+
+        // Act : reconnexion après le premier évènement
+        List<Long> sessionIds = sessionEventStream.subscribe(live.get(0).id())
+                .take(2)
+                .map(event -> event.session().getId())
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        // Assert
+        assertThat(sessionIds).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void subscribe_shouldSendReset_whenLastEventIdIsNoLongerRetained() {
+        // Arrange : 4 évènements pour un tampon de 3
+        for (long id = 1; id <= 4; id++) {
+            sessionEventStream.publish("updated", session(id));
+        }
+
+        // Act
+        SessionStreamEvent first = sessionEventStream.subscribe(1L).blockFirst(Duration.ofSeconds(1));
+
+        // Assert
+        assertThat(first.type()).isEqualTo(SessionStreamEvent.RESET);
+    }
+
+    @Test
+    void publish_shouldDisconnectSlowSubscriber_withoutBlockingOthers() {
+        // Arrange : un abonné qui ne demande rien, un abonné normal
+        List<SessionStreamEvent> fast = new CopyOnWriteArrayList<>();
+        sessionEventStream.subscribe(null).subscribe(fast::add);
+        sessionEventStream.subscribe(null).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // aucune demande
+            }
+        });
+
+        // Act : plus d'évènements que la file d'un abonné
+        for (long id = 1; id <= 10; id++) {
+            sessionEventStream.publish("updated", session(id));
+        }
+
+        // Assert
+        assertThat(fast).hasSize(10);
+        assertThat(sessionEventStream.subscriberCount()).isEqualTo(1);
+    }
+}
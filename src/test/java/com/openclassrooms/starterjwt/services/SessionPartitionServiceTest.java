@@ -0,0 +1,111 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
+import com.openclassrooms.starterjwt.repository.SessionPartitionRepository;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionViewRepository;
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionPartitionServiceTest {
+
+    @Mock
+    private SessionPartitionRepository sessionPartitionRepository;
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    @Mock
+    private SessionViewRepository sessionViewRepository;
+
+    @Mock
+    private SessionChangeRepository sessionChangeRepository;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private ScheduleIndex scheduleIndex;
+
+    private SessionPartitionService sessionPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        sessionPartitionService = new SessionPartitionService(
+                sessionPartitionRepository, sessionRepository, sessionViewRepository, sessionChangeRepository,
+                waitlistRepository, seatHoldRepository, scheduleIndex, 2);
+    }
+
+    @Test
+    void ensureFuturePartitions_shouldAddMissingMonths_upToMonthsAhead() {
+        // Arrange
+        YearMonth now = YearMonth.now();
+        when(sessionPartitionRepository.findMonths(anyString())).thenReturn(List.of(now.minusMonths(1), now));
+
+        // Act
+        sessionPartitionService.ensureFuturePartitions();
+
+        // Assert
+        for (String table : SessionPartitionRepository.TABLES) {
+            verify(sessionPartitionRepository).addMonth(table, now.plusMonths(1));
+            verify(sessionPartitionRepository).addMonth(table, now.plusMonths(2));
+        }
+        verify(sessionPartitionRepository, times(4)).addMonth(anyString(), any());
+    }
+
+    @Test
+    void dropBefore_shouldDropOlderMonths_participateFirst_andCleanSessionView() {
+        // Arrange
+        YearMonth cutoff = YearMonth.of(2024, 3);
+        List<YearMonth> months = List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2), cutoff);
+        when(sessionPartitionRepository.findMonths(anyString())).thenReturn(months);
+        when(sessionRepository.findIdsByDateBefore(any(Date.class))).thenReturn(List.of(1L, 2L));
+
+        // Act
+        int dropped = sessionPartitionService.dropBefore(cutoff);
+
+        // Assert
+        assertThat(dropped).isEqualTo(2);
+        InOrder inOrder = inOrder(sessionPartitionRepository);
+        inOrder.verify(sessionPartitionRepository).dropMonth("participate", YearMonth.of(2024, 1));
+        inOrder.verify(sessionPartitionRepository).dropMonth("participate", YearMonth.of(2024, 2));
+        inOrder.verify(sessionPartitionRepository).dropMonth("sessions", YearMonth.of(2024, 1));
+        inOrder.verify(sessionPartitionRepository).dropMonth("sessions", YearMonth.of(2024, 2));
+        verify(sessionPartitionRepository, never()).dropMonth(anyString(), eq(cutoff));
+        verify(sessionViewRepository).deleteAllById(List.of(1L, 2L));
+        verify(waitlistRepository).removeBySessionId(1L);
+        verify(waitlistRepository).removeBySessionId(2L);
+        verify(seatHoldRepository).removeBySessionId(1L);
+        verify(seatHoldRepository).removeBySessionId(2L);
+        verify(scheduleIndex).remove(1L);
+        verify(scheduleIndex).remove(2L);
+        verify(sessionChangeRepository).recordDeletions(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void partitionClause_shouldBoundMonthOnFirstDayOfNextMonth() {
+        assertThat(SessionPartitionRepository.partitionClause(YearMonth.of(2024, 12)))
+                .isEqualTo("PARTITION p202412 VALUES LESS THAN ('2025-01-01')");
+    }
+}
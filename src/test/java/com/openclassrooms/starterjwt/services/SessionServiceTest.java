@@ -1,24 +1,31 @@
 package com.openclassrooms.starterjwt.services;
 
 import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.dto.WaitlistPositionDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SeatHoldRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesExceptionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.WaitlistRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +40,21 @@ class SessionServiceTest {
     @Mock
     private TeacherService teacherService;
 
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private SessionSeriesExceptionRepository sessionSeriesExceptionRepository;
+
+    @Mock
+    private ScheduleIndex scheduleIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SessionService sessionService;
 
@@ -85,6 +107,7 @@ class SessionServiceTest {
         incoming.setDate(new Date());
         incoming.setDescription("New desc");
 
+        when(sessionRepository.lockSeats(id)).thenReturn(1);
         when(sessionRepository.findById(id)).thenReturn(Optional.of(existing));
         when(sessionRepository.save(any(Session.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -101,7 +124,7 @@ class SessionServiceTest {
     void update_shouldThrowNotFound_legacySignature_whenMissing() {
         // Arrange
         Long id = 99L;
-        when(sessionRepository.findById(id)).thenReturn(Optional.empty());
+        when(sessionRepository.lockSeats(id)).thenReturn(0);
 
         // Act + Assert
         assertThrows(NotFoundException.class, () -> sessionService.update(id, new Session()));
@@ -205,6 +228,7 @@ class SessionServiceTest {
         User user = new User();
         user.setId(userId);
 
+        when(sessionRepository.lockSeats(id)).thenReturn(1);
         when(sessionRepository.findById(id)).thenReturn(Optional.of(existing));
         when(teacherService.findById(teacherId)).thenReturn(teacher);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
@@ -243,6 +267,7 @@ class SessionServiceTest {
         Teacher teacher = new Teacher();
         teacher.setId(teacherId);
 
+        when(sessionRepository.lockSeats(id)).thenReturn(1);
         when(sessionRepository.findById(id)).thenReturn(Optional.of(existing));
         when(teacherService.findById(teacherId)).thenReturn(teacher);
         when(sessionRepository.save(any(Session.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -261,7 +286,7 @@ class SessionServiceTest {
 
         // Arrange
         Long id = 999L;
-        when(sessionRepository.findById(id)).thenReturn(Optional.empty());
+        when(sessionRepository.lockSeats(id)).thenReturn(0);
 
         Session incoming = baseSession();
         SessionDto dto = baseDto(1L, null);
@@ -284,6 +309,7 @@ class SessionServiceTest {
         session.setId(sessionId);
         session.setUsers(new ArrayList<>(List.of(user)));
 
+        when(sessionRepository.takeSeat(sessionId)).thenReturn(1);
         when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
@@ -291,4 +317,215 @@ class SessionServiceTest {
         assertThrows(BadRequestException.class, () -> sessionService.participate(sessionId, userId));
         verify(sessionRepository, never()).save(any());
     }
+
+    @Test
+    void participate_shouldPublishParticipationEvent() {
+        // Arrange
+        Long sessionId = 1L;
+        Long userId = 10L;
+
+        User user = new User();
+        user.setId(userId);
+
+        Session session = baseSession();
+        session.setId(sessionId);
+
+        when(sessionRepository.takeSeat(sessionId)).thenReturn(1);
+        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        sessionService.participate(sessionId, userId);
+
+        // Assert
+        verify(eventPublisher).publishEvent(
+                new SessionChangedEvent(SessionChangedEvent.Type.PARTICIPATION, sessionId));
+    }
+
+    @Test
+    void participate_shouldThrowConflict_whenUserIsBookedAtSameTime() {
+        // Arrange
+        User user = new User().setId(10L);
+        Session session = baseSession();
+        session.setId(1L);
+
+        when(sessionRepository.takeSeat(1L)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        doThrow(new ConflictException("User is already booked at this time"))
+                .when(scheduleIndex).bookUser(session, 10L);
+
+        // Act + Assert
+        assertThrows(ConflictException.class, () -> sessionService.participate(1L, 10L));
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void participate_shouldThrowConflict_whenSessionIsFull() {
+        // Arrange
+        when(sessionRepository.takeSeat(1L)).thenReturn(0);
+        when(sessionRepository.existsById(1L)).thenReturn(true);
+
+        // Act + Assert
+        assertThrows(ConflictException.class, () -> sessionService.participate(1L, 10L));
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void participate_shouldThrowNotFound_whenSessionMissing() {
+        // Arrange
+        when(sessionRepository.takeSeat(99L)).thenReturn(0);
+        when(sessionRepository.existsById(99L)).thenReturn(false);
+
+        // Act + Assert
+        assertThrows(NotFoundException.class, () -> sessionService.participate(99L, 10L));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void create_withDto_shouldThrowBadRequest_whenUsersExceedCapacity() {
+        // Arrange
+        Session session = baseSession();
+        session.setCapacity(1);
+        SessionDto dto = baseDto(1L, List.of(10L, 11L));
+
+        when(teacherService.findById(1L)).thenReturn(new Teacher());
+        when(userRepository.findById(any())).thenAnswer(inv -> Optional.of(new User().setId(inv.getArgument(0))));
+
+        // Act + Assert
+        assertThrows(BadRequestException.class, () -> sessionService.create(session, dto));
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void noLongerParticipate_shouldPromoteWaitlistHead() {
+        // Arrange
+        User leaving = new User().setId(10L);
+        User waiting = new User().setId(11L);
+
+        Session session = baseSession();
+        session.setId(1L);
+        session.setCapacity(1);
+        session.setUsers(new ArrayList<>(List.of(leaving)));
+
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(waitlistRepository.findHead(1L)).thenReturn(Optional.of(11L), Optional.empty());
+        when(sessionRepository.takeSeat(1L)).thenReturn(1);
+        when(userRepository.findById(11L)).thenReturn(Optional.of(waiting));
+
+        // Act
+        sessionService.noLongerParticipate(1L, 10L);
+
+        // Assert
+        assertThat(session.getUsers()).containsExactly(waiting);
+        verify(scheduleIndex).bookUser(session, 11L);
+        verify(sessionRepository).releaseSeat(1L);
+        verify(waitlistRepository).remove(1L, 11L);
+        verify(sessionRepository).save(session);
+    }
+
+    @Test
+    void noLongerParticipate_shouldSkipWaitlistHead_whenAlreadyBookedAtThisTime() {
+        // Arrange
+        User leaving = new User().setId(10L);
+        User waiting = new User().setId(11L);
+
+        Session session = baseSession();
+        session.setId(1L);
+        session.setCapacity(1);
+        session.setUsers(new ArrayList<>(List.of(leaving)));
+
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(waitlistRepository.findHead(1L)).thenReturn(Optional.of(11L), Optional.empty());
+        when(sessionRepository.takeSeat(1L)).thenReturn(1);
+        when(userRepository.findById(11L)).thenReturn(Optional.of(waiting));
+        doThrow(new ConflictException("User is already booked at this time"))
+                .when(scheduleIndex).bookUser(session, 11L);
+
+        // Act
+        sessionService.noLongerParticipate(1L, 10L);
+
+        // Assert : la place prise pour lui est rendue, et il quitte la file
+        assertThat(session.getUsers()).isEmpty();
+        verify(sessionRepository, times(2)).releaseSeat(1L);
+        verify(waitlistRepository).remove(1L, 11L);
+    }
+
+    @Test
+    void joinWaitlist_shouldQueueUser_whenSessionIsFull() {
+        // Arrange
+        Session session = baseSession();
+        session.setId(1L);
+        session.setCapacity(1);
+        session.setUsers(new ArrayList<>(List.of(new User().setId(10L))));
+
+        when(sessionRepository.lockSeats(1L)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.findById(11L)).thenReturn(Optional.of(new User().setId(11L)));
+        when(sessionRepository.takeSeat(1L)).thenReturn(0);
+        when(waitlistRepository.findPosition(1L, 11L)).thenReturn(1);
+
+        // Act
+        WaitlistPositionDto position = sessionService.joinWaitlist(1L, 11L);
+
+        // Assert
+        assertThat(position.isParticipating()).isFalse();
+        assertThat(position.getPosition()).isEqualTo(1);
+        verify(waitlistRepository).add(eq(1L), eq(11L), any());
+        verify(eventPublisher).publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.WAITLIST, 1L));
+    }
+
+    @Test
+    void joinWaitlist_shouldParticipateDirectly_whenSeatIsFree() {
+        // Arrange
+        Session session = baseSession();
+        session.setId(1L);
+
+        when(sessionRepository.lockSeats(1L)).thenReturn(1);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(userRepository.findById(11L)).thenReturn(Optional.of(new User().setId(11L)));
+        when(sessionRepository.takeSeat(1L)).thenReturn(1);
+
+        // Act
+        WaitlistPositionDto position = sessionService.joinWaitlist(1L, 11L);
+
+        // Assert
+        assertThat(position.isParticipating()).isTrue();
+        assertThat(session.getUsers()).extracting(User::getId).containsExactly(11L);
+        verify(waitlistRepository, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void delete_shouldPublishDeletedEvent() {
+        // Arrange
+        Session session = baseSession();
+        session.setId(5L);
+        when(sessionRepository.findById(5L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.delete(5L);
+
+        // Assert
+        verify(sessionRepository).delete(session);
+        verify(seatHoldRepository).removeBySessionId(5L);
+        verify(sessionSeriesExceptionRepository, never()).cancel(any(), any());
+        verify(eventPublisher).publishEvent(new SessionChangedEvent(SessionChangedEvent.Type.DELETED, 5L));
+    }
+
+    @Test
+    void delete_shouldCancelOccurrence_whenSessionBelongsToSeries() {
+        // Arrange
+        Session session = baseSession();
+        session.setId(5L);
+        session.setSeriesId(2L);
+        session.setOccurrenceStart(session.getDate());
+        when(sessionRepository.findById(5L)).thenReturn(Optional.of(session));
+
+        // Act
+        sessionService.delete(5L);
+
+        // Assert
+        verify(sessionRepository).delete(session);
+        verify(sessionSeriesExceptionRepository).cancel(2L, session.getDate());
+    }
 }
@@ -0,0 +1,85 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionViewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionViewServiceTest {
+
+    @Mock
+    private SessionViewRepository sessionViewRepository;
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SessionViewService sessionViewService;
+
+    @BeforeEach
+    void setUp() {
+        sessionViewService = new SessionViewService(
+                sessionViewRepository, sessionRepository, transactionManager,
+                new SingleFlight(new SimpleMeterRegistry(), mock(ObjectProvider.class), transactionManager), 2, 2);
+    }
+
+    @Test
+    void getById_shouldThrowNotFound_whenMissing() {
+        // Arrange
+        when(sessionViewRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act + Assert
+        assertThrows(NotFoundException.class, () -> sessionViewService.getById(1L));
+    }
+
+    @Test
+    void rebuild_shouldProjectSessionsByChunks_andRemoveOrphans() {
+        // Arrange
+        when(sessionRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(sessionRepository.findAllWithRelationsByIdIn(anyList()))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                        .map(id -> new Session().setId(id))
+                        .toList());
+        when(sessionViewRepository.deleteOrphans()).thenReturn(0);
+
+        // Act
+        int rebuilt = sessionViewService.rebuild();
+
+        // Assert : 3 sessions par lots de 2 -> 2 lots
+        assertThat(rebuilt).isEqualTo(3);
+        verify(sessionRepository).findAllWithRelationsByIdIn(List.of(1L, 2L));
+        verify(sessionRepository).findAllWithRelationsByIdIn(List.of(3L));
+        verify(sessionViewRepository, times(2)).saveAll(anyList());
+        verify(sessionViewRepository).deleteOrphans();
+    }
+
+    @Test
+    void needsRebuild_shouldBeTrue_onlyWhenViewIsEmptyAndSessionsExist() {
+        // Arrange
+        when(sessionViewRepository.count()).thenReturn(0L, 5L);
+        when(sessionRepository.count()).thenReturn(5L);
+
+        // Act + Assert
+        assertThat(sessionViewService.needsRebuild()).isTrue();
+        assertThat(sessionViewService.needsRebuild()).isFalse();
+    }
+}
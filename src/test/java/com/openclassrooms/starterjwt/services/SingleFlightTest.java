@@ -0,0 +1,154 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.configuration.ReadYourWritesTracker;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry, readYourWritesTracker, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void load_shouldShareOneLoad_betweenConcurrentCalls() throws Exception {
+        // Arrange
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.load("session", 1L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "Yoga";
+            })));
+            // Attend que le premier appel soit en cours de chargement avant d'envoyer les autres
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.load("session", 1L, () -> {
+                    loads.incrementAndGet();
+                    return "Other";
+                })));
+            }
+            while (meterRegistry.counter("singleflight.calls", "name", "session", "outcome", "coalesced").count()
+                    < callers - 1) {
+                Thread.onSpinWait();
+            }
+
+            // Act
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Yoga");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(meterRegistry.counter("singleflight.calls", "name", "session", "outcome", "leader").count())
+                    .isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_shouldLoadAgain_onceThePreviousLoadCompleted() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        singleFlight.load("teacher", 1L, loads::incrementAndGet);
+        int second = singleFlight.load("teacher", 1L, loads::incrementAndGet);
+
+        // Assert
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    void load_shouldPropagateLoaderException() {
+        // Act + Assert
+        assertThrows(NotFoundException.class, () -> singleFlight.load("user", 1L, () -> {
+            throw new NotFoundException();
+        }));
+    }
+
+    @Test
+    void load_shouldLoadDirectly_whenTransactionIsActive() {
+        // Arrange
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        String result = singleFlight.load("user", 1L, () -> "direct");
+
+        // Assert
+        assertThat(result).isEqualTo("direct");
+        assertThat(meterRegistry.find("singleflight.calls").counter()).isNull();
+    }
+
+    @Test
+    void load_shouldLoadDirectly_whenUserHasRecentWrite() {
+        // Arrange
+        ReadYourWritesTracker tracker = mock(ReadYourWritesTracker.class);
+        when(tracker.hasRecentWrite()).thenReturn(true);
+        when(readYourWritesTracker.getIfAvailable()).thenReturn(tracker);
+
+        // Act
+        String result = singleFlight.load("user", 1L, () -> "direct");
+
+        // Assert
+        assertThat(result).isEqualTo("direct");
+        assertThat(meterRegistry.find("singleflight.calls").counter()).isNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
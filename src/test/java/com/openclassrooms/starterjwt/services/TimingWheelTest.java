@@ -0,0 +1,76 @@
+package com.openclassrooms.starterjwt.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimingWheelTest {
+
+    @Test
+    void advance_shouldReturnEntriesOnceDue_neverEarlier() {
+        // Arrange : 10 ms par tick, 4 emplacements sur 2 niveaux (portée 160 ms)
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("later", 95);
+        wheel.schedule("beyond", 1000);
+
+        // Act & Assert
+        assertThat(wheel.advance(29)).isEmpty();
+        assertThat(wheel.advance(30)).containsExactly("soon");
+        assertThat(wheel.advance(99)).isEmpty();
+        assertThat(wheel.advance(100)).containsExactly("later");
+        assertThat(wheel.advance(999)).isEmpty();
+        assertThat(wheel.advance(1000)).containsExactly("beyond");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_shouldReturnPastDeadlinesOnNextAdvance() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 1000);
+        wheel.advance(1500);
+
+        // Act
+        wheel.schedule("overdue", 200);
+
+        // Assert
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(1500)).containsExactly("overdue");
+    }
+
+    @Test
+    void advance_shouldExpireEachOfManyEntriesWithinOneTick() {
+        // Arrange : 100 000 échéances réparties sur une heure, tick d'une seconde
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 64, 4, 0);
+        long[] deadlines = new long[100_000];
+        Random random = new Random(42);
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = random.nextLong(3_600_000);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        // Act
+        List<Integer> expired = new ArrayList<>();
+        for (long now = 0; now <= 3_601_000; now += 1000) {
+            for (Integer i : wheel.advance(now)) {
+                assertThat(deadlines[i]).isLessThanOrEqualTo(now).isGreaterThan(now - 1000);
+                expired.add(i);
+            }
+        }
+
+        // Assert
+        assertThat(expired).hasSize(deadlines.length).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void constructor_shouldRejectSlotsThatAreNotPowerOfTwo() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(10, 6, 2, 0));
+    }
+}